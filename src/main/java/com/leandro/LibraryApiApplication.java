@@ -1,6 +1,7 @@
 package com.leandro;
 
-import org.modelmapper.ModelMapper;
+import com.leandro.api.mapper.BookMapper;
+import com.leandro.api.mapper.LoanMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
@@ -11,8 +12,13 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class LibraryApiApplication {
 
     @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
+    public BookMapper bookMapper() {
+        return new BookMapper();
+    }
+
+    @Bean
+    public LoanMapper loanMapper(BookMapper bookMapper) {
+        return new LoanMapper(bookMapper);
     }
 
     public static void main(String[] args) {
@@ -2,6 +2,7 @@ package com.leandro.api;
 
 import com.leandro.api.exceptions.ApiErrors;
 import com.leandro.api.exceptions.BussinesException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -35,6 +36,12 @@ public class ApplicationControllerAdvice {
         return new ApiErrors(exception);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrors handleOptimisticLockingException(OptimisticLockingFailureException exception) {
+        return new ApiErrors(exception);
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<ApiErrors> handleResponseStatusException(ResponseStatusException exception) {
         return new ResponseEntity<>(new ApiErrors(exception), exception.getStatus());
@@ -0,0 +1,54 @@
+package com.leandro.api;
+
+import com.leandro.api.dto.CursorPageDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public final class CursorCodec {
+
+    public static final int MAX_SIZE = 2000;
+
+    private static final String PREFIX = "id:";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new IllegalArgumentException(value);
+            }
+            return Long.valueOf(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public static int limit(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public static <E, T> CursorPageDTO<T> page(List<E> rows, int size, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> content = hasNext ? rows.subList(0, size) : rows;
+        return CursorPageDTO.<T>builder()
+                .content(content.stream().map(mapper).collect(Collectors.toList()))
+                .next(hasNext ? encode(idOf.apply(content.get(content.size() - 1))) : null)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.leandro.api;
+
+import org.springframework.http.ResponseEntity;
+
+public final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    public static <B extends ResponseEntity.HeadersBuilder<B>> B withETag(B builder, Long version) {
+        return version == null ? builder : builder.eTag(of(version));
+    }
+
+    public static boolean matchesIfNoneMatch(String header, Long version) {
+        return matches(header, version, true);
+    }
+
+    public static boolean matchesIfMatch(String header, Long version) {
+        return matches(header, version, false);
+    }
+
+    private static boolean matches(String header, Long version, boolean weakComparison) {
+        if (header == null || version == null) {
+            return false;
+        }
+        String current = of(version);
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag)) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                if (!weakComparison) {
+                    continue;
+                }
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (current.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,15 @@
+package com.leandro.api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookAvailabilityDTO {
+
+    private Long id;
+    private String isbn;
+    private Boolean available;
+}
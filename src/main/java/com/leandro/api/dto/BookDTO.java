@@ -1,5 +1,7 @@
 package com.leandro.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.leandro.model.projection.BookSummary;
 import lombok.*;
 
 import javax.validation.constraints.NotEmpty;
@@ -21,4 +23,11 @@ public class BookDTO {
 
     @NotEmpty
     private String isbn;
+
+    @JsonIgnore
+    private Long version;
+
+    public static BookDTO from(BookSummary book) {
+        return new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getVersion());
+    }
 }
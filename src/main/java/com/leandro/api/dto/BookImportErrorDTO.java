@@ -0,0 +1,17 @@
+package com.leandro.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportErrorDTO {
+
+    private Integer index;
+    private String isbn;
+    private List<String> errors;
+}
@@ -0,0 +1,20 @@
+package com.leandro.api.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportResultDTO {
+
+    private int imported;
+    private int failed;
+
+    @Builder.Default
+    private List<BookImportErrorDTO> errors = new ArrayList<>();
+}
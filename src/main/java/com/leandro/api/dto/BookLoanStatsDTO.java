@@ -0,0 +1,15 @@
+package com.leandro.api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookLoanStatsDTO {
+
+    private Long bookId;
+    private long loans;
+    private long openLoans;
+}
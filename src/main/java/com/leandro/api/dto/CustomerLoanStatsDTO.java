@@ -0,0 +1,15 @@
+package com.leandro.api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerLoanStatsDTO {
+
+    private String customerEmail;
+    private long loans;
+    private long openLoans;
+}
@@ -0,0 +1,20 @@
+package com.leandro.api.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanArchiveStatsDTO {
+
+    private long archivedRows;
+    private long archivedSinceStartup;
+    private long lastPassRows;
+    private long lastPassBatches;
+    private long lastPassMillis;
+    private LocalDateTime lastPassAt;
+}
@@ -1,5 +1,6 @@
 package com.leandro.api.dto;
 
+import com.leandro.model.projection.LoanSummary;
 import lombok.*;
 
 import javax.validation.constraints.Email;
@@ -22,4 +23,14 @@ public class LoanDTO {
     @NotEmpty
     @Email
     private String customerEmail;
+
+    public static LoanDTO from(LoanSummary loan) {
+        BookDTO book = loan.getBookId() == null ? null : BookDTO.builder()
+                .id(loan.getBookId())
+                .title(loan.getBookTitle())
+                .author(loan.getBookAuthor())
+                .isbn(loan.getBookIsbn())
+                .build();
+        return new LoanDTO(loan.getId(), book, loan.getCustomer(), loan.getCustomerEmail());
+    }
 }
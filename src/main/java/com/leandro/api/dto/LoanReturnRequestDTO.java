@@ -0,0 +1,20 @@
+package com.leandro.api.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanReturnRequestDTO {
+
+    @Size(max = 10000)
+    private List<Long> ids;
+
+    @Size(max = 10000)
+    private List<String> isbns;
+}
@@ -0,0 +1,15 @@
+package com.leandro.api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanReturnResultDTO {
+
+    private Long id;
+    private String isbn;
+    private LoanReturnStatus status;
+}
@@ -0,0 +1,7 @@
+package com.leandro.api.dto;
+
+public enum LoanReturnStatus {
+    RETURNED,
+    ALREADY_RETURNED,
+    NOT_FOUND
+}
@@ -0,0 +1,17 @@
+package com.leandro.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanStatsDTO {
+
+    private long loans;
+    private long openLoans;
+    private List<BookLoanStatsDTO> mostBorrowedBooks;
+}
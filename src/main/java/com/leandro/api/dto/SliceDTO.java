@@ -0,0 +1,28 @@
+package com.leandro.api.dto;
+
+import lombok.*;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceDTO<T> {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+
+    public static <T> SliceDTO<T> of(Slice<T> slice) {
+        return SliceDTO.<T>builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .build();
+    }
+}
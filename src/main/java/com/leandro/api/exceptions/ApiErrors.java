@@ -1,6 +1,7 @@
 package com.leandro.api.exceptions;
 
 import lombok.Getter;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -27,6 +28,10 @@ public class ApiErrors {
         this.errors = Arrays.asList(exception.getMessage());
     }
 
+    public ApiErrors(OptimisticLockingFailureException exception) {
+        this.errors = Arrays.asList("Resource was modified by another request");
+    }
+
     public ApiErrors(ResponseStatusException exception) {
         this.errors = Arrays.asList(exception.getReason());
     }
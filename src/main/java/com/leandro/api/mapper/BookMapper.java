@@ -0,0 +1,26 @@
+package com.leandro.api.mapper;
+
+import com.leandro.api.dto.BookDTO;
+import com.leandro.model.entity.Book;
+
+public class BookMapper {
+
+    public BookDTO toDto(Book book) {
+        if (book == null) {
+            return null;
+        }
+        return new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getVersion());
+    }
+
+    public Book toEntity(BookDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        Book book = new Book();
+        book.setId(dto.getId());
+        book.setTitle(dto.getTitle());
+        book.setAuthor(dto.getAuthor());
+        book.setIsbn(dto.getIsbn());
+        return book;
+    }
+}
@@ -0,0 +1,32 @@
+package com.leandro.api.mapper;
+
+import com.leandro.api.dto.LoanDTO;
+import com.leandro.model.entity.Loan;
+
+public class LoanMapper {
+
+    private final BookMapper bookMapper;
+
+    public LoanMapper(BookMapper bookMapper) {
+        this.bookMapper = bookMapper;
+    }
+
+    public LoanDTO toDto(Loan loan) {
+        if (loan == null) {
+            return null;
+        }
+        return new LoanDTO(loan.getId(), bookMapper.toDto(loan.getBook()), loan.getCustomer(), loan.getCustomerEmail());
+    }
+
+    public Loan toEntity(LoanDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        Loan loan = new Loan();
+        loan.setId(dto.getId());
+        loan.setBook(bookMapper.toEntity(dto.getBook()));
+        loan.setCustomer(dto.getCustomer());
+        loan.setCustomerEmail(dto.getCustomerEmail());
+        return loan;
+    }
+}
@@ -1,61 +1,142 @@
 package com.leandro.api.resource;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leandro.api.CursorCodec;
+import com.leandro.api.ETags;
+import com.leandro.api.dto.BookAvailabilityDTO;
+import com.leandro.api.dto.BookAvailabilityRequestDTO;
 import com.leandro.api.dto.BookDTO;
+import com.leandro.api.dto.BookImportResultDTO;
+import com.leandro.api.dto.CursorPageDTO;
 import com.leandro.api.dto.LoanDTO;
+import com.leandro.api.dto.SliceDTO;
+import com.leandro.api.mapper.BookMapper;
+import com.leandro.api.mapper.LoanMapper;
 import com.leandro.model.entity.Book;
+import com.leandro.service.BookAvailabilityService;
+import com.leandro.service.BookExportService;
+import com.leandro.service.BookImportService;
 import com.leandro.service.BookService;
+import com.leandro.service.ExportFormat;
+import com.leandro.service.LoanArchiveService;
 import com.leandro.service.LoanService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private BookService service;
-    private ModelMapper mapper;
+    private BookMapper bookMapper;
+    private LoanMapper loanMapper;
     private LoanService loanService;
+    private BookImportService importService;
+    private BookExportService exportService;
+    private BookAvailabilityService availabilityService;
+    private LoanArchiveService archiveService;
+    private ObjectMapper objectMapper;
 
     @Autowired
-    public BookController(BookService service, ModelMapper mapper, LoanService loanService) {
+    public BookController(BookService service, BookMapper bookMapper, LoanMapper loanMapper, LoanService loanService,
+                          BookImportService importService, BookExportService exportService,
+                          BookAvailabilityService availabilityService, LoanArchiveService archiveService,
+                          ObjectMapper objectMapper) {
         this.service = service;
-        this.mapper = mapper;
+        this.bookMapper = bookMapper;
+        this.loanMapper = loanMapper;
         this.loanService = loanService;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.availabilityService = availabilityService;
+        this.archiveService = archiveService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookDTO create(@RequestBody @Valid BookDTO bookDTO) {
-        Book entity = mapper.map(bookDTO, Book.class);
+        Book entity = bookMapper.toEntity(bookDTO);
         entity = service.save(entity);
-        return mapper.map(entity, BookDTO.class);
+        return bookMapper.toDto(entity);
+    }
+
+    @PostMapping(value = "batch", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    public BookImportResultDTO importBooks(HttpServletRequest request) throws IOException {
+        try (MappingIterator<BookDTO> books = objectMapper.readerFor(BookDTO.class).readValues(request.getInputStream())) {
+            return importService.importBooks(books);
+        }
+    }
+
+    @PostMapping("availability")
+    public List<BookAvailabilityDTO> availability(@RequestBody @Valid BookAvailabilityRequestDTO dto) {
+        return availabilityService.check(dto.getIds(), dto.getIsbns());
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = exportFormatOf(format);
+        StreamingResponseBody body = outputStream -> exportService.export(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books." + exportFormat.getExtension())
+                .body(body);
     }
 
     @GetMapping("{id}")
-    public BookDTO getDetails(@PathVariable("id") Long id) {
-        Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found"));
-        return mapper.map(book, BookDTO.class);
+    public ResponseEntity<BookDTO> getDetails(@PathVariable("id") Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Long version = service.getVersion(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found"));
+            if (ETags.matchesIfNoneMatch(ifNoneMatch, version)) {
+                return ETags.withETag(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+            }
+        }
+        BookDTO book = service.getDetails(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found"));
+        return ETags.withETag(ResponseEntity.ok(), book.getVersion()).body(book);
     }
 
     @GetMapping
     public Page<BookDTO> find(BookDTO dto, Pageable pageable) {
-        Page<Book> result = service.find(mapper.map(dto, Book.class), pageable);
-        List<BookDTO> content = result.getContent()
-                .stream()
-                .map(book -> mapper.map(book, BookDTO.class))
-                .collect(Collectors.toList());
-        return new PageImpl<>(content, result.getPageable(), result.getTotalElements());
+        return service.findDtos(bookMapper.toEntity(dto), pageable);
+    }
+
+    @GetMapping(params = {"withTotal=false", "!cursor"})
+    public SliceDTO<BookDTO> findWithoutTotal(BookDTO dto, Pageable pageable) {
+        return SliceDTO.of(service.findSlice(bookMapper.toEntity(dto), pageable)
+                .map(bookMapper::toDto));
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorPageDTO<BookDTO> findByCursor(BookDTO dto, @RequestParam("cursor") String cursor,
+                                               @RequestParam(value = "size", defaultValue = "20") int size) {
+        int limit = CursorCodec.limit(size);
+        List<Book> result = service.findAfter(bookMapper.toEntity(dto), CursorCodec.decode(cursor), limit + 1);
+        return CursorCodec.page(result, limit, Book::getId, bookMapper::toDto);
+    }
+
+    @GetMapping("search")
+    public Page<BookDTO> search(@RequestParam("q") String query, Pageable pageable) {
+        return service.search(query, pageable).map(bookMapper::toDto);
     }
 
     @DeleteMapping("{id}")
@@ -65,21 +146,53 @@ public class BookController {
     }
 
     @PutMapping("{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public BookDTO update(@RequestBody BookDTO bookDTO, @PathVariable("id") Long id) {
+    public ResponseEntity<BookDTO> update(@RequestBody BookDTO bookDTO, @PathVariable("id") Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Book book = service.getById(id).orElseThrow(NoSuchElementException::new);
+        if (ifMatch != null && !ETags.matchesIfMatch(ifMatch, book.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Book was modified");
+        }
 
         book.setAuthor(bookDTO.getAuthor());
         book.setTitle(bookDTO.getTitle());
 
         book = service.update(book);
 
-        return mapper.map(book, BookDTO.class);
+        return ETags.withETag(ResponseEntity.ok(), book.getVersion()).body(bookMapper.toDto(book));
     }
 
     @GetMapping("{id}/loans")
     public Page<LoanDTO> loansByBook(@PathVariable Long id, Pageable pageable) {
+        if (!service.exists(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found");
+        }
+        return loanService.findLoanDtosByBook(id, pageable);
+    }
+
+    @GetMapping(value = "{id}/loans", params = {"includeArchived=true", "withTotal!=false"})
+    public Page<LoanDTO> loanHistoryByBook(@PathVariable Long id, Pageable pageable) {
+        if (!service.exists(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found");
+        }
+        return archiveService.findHistoryByBook(id, pageable);
+    }
+
+    @GetMapping(value = "{id}/loans", params = {"includeArchived=true", "withTotal=false"})
+    public SliceDTO<LoanDTO> loanHistoryByBookWithoutTotal(@PathVariable Long id) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "withTotal=false is not supported with includeArchived=true");
+    }
+
+    @GetMapping(value = "{id}/loans", params = {"includeArchived!=true", "withTotal=false"})
+    public SliceDTO<LoanDTO> loansByBookWithoutTotal(@PathVariable Long id, Pageable pageable) {
         Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Book not found"));
-        return loanService.findLoansByBook(book, pageable).map(loan -> mapper.map(loan, LoanDTO.class));
+        return SliceDTO.of(loanService.findLoanSliceByBook(book, pageable).map(loanMapper::toDto));
+    }
+
+    private ExportFormat exportFormatOf(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid export format");
+        }
     }
 }
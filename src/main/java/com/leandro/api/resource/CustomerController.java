@@ -0,0 +1,30 @@
+package com.leandro.api.resource;
+
+import com.leandro.api.dto.LoanDTO;
+import com.leandro.service.LoanService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/customers")
+public class CustomerController {
+
+    private LoanService loanService;
+
+    @Autowired
+    public CustomerController(LoanService loanService) {
+        this.loanService = loanService;
+    }
+
+    @GetMapping("{email:.+}/loans")
+    @ResponseStatus(HttpStatus.OK)
+    public Page<LoanDTO> loansByCustomer(@PathVariable String email,
+                                         @PageableDefault(sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return loanService.findLoanDtosByCustomer(email, pageable);
+    }
+}
@@ -1,22 +1,32 @@
 package com.leandro.api.resource;
 
+import com.leandro.api.CursorCodec;
+import com.leandro.api.ETags;
+import com.leandro.api.dto.CursorPageDTO;
 import com.leandro.api.dto.LoanDTO;
 import com.leandro.api.dto.LoanFilterDTO;
+import com.leandro.api.dto.LoanReturnRequestDTO;
+import com.leandro.api.dto.LoanReturnResultDTO;
 import com.leandro.api.dto.ReturnedLoanDTO;
+import com.leandro.api.dto.SliceDTO;
+import com.leandro.api.mapper.LoanMapper;
 import com.leandro.api.exceptions.BussinesException;
 import com.leandro.model.entity.Book;
 import com.leandro.model.entity.Loan;
 import com.leandro.service.BookService;
+import com.leandro.service.LoanReturnService;
 import com.leandro.service.LoanService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/loans")
@@ -24,12 +34,14 @@ public class LoanController {
 
     private BookService bookService;
     private LoanService loanService;
-    private ModelMapper mapper;
+    private LoanReturnService returnService;
+    private LoanMapper mapper;
 
     @Autowired
-    public LoanController(BookService bookService, LoanService loanService, ModelMapper mapper) {
+    public LoanController(BookService bookService, LoanService loanService, LoanReturnService returnService, LoanMapper mapper) {
         this.bookService = bookService;
         this.loanService = loanService;
+        this.returnService = returnService;
         this.mapper = mapper;
     }
 
@@ -37,10 +49,23 @@ public class LoanController {
     @ResponseStatus(HttpStatus.CREATED)
     public LoanDTO create( @Valid @RequestBody LoanDTO dto) {
         Book book = bookService.findByIsbn(dto.getBook().getIsbn()).orElseThrow(() -> new BussinesException("Book not found for passed isbn"));
-        Loan loan = mapper.map(dto, Loan.class);
+        Loan loan = mapper.toEntity(dto);
         loan.setBook(book);
         loan = loanService.save(loan);
-        return mapper.map(loan, LoanDTO.class);
+        return mapper.toDto(loan);
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<LoanDTO> getDetails(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Long version = loanService.getVersion(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Loan not found"));
+            if (ETags.matchesIfNoneMatch(ifNoneMatch, version)) {
+                return ETags.withETag(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+            }
+        }
+        Loan loan = loanService.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Loan not found"));
+        return ETags.withETag(ResponseEntity.ok(), loan.getVersion()).body(mapper.toDto(loan));
     }
 
     @PatchMapping("{id}")
@@ -51,11 +76,31 @@ public class LoanController {
         loanService.update(loan);
     }
 
+    @PatchMapping("returns")
+    @ResponseStatus(HttpStatus.OK)
+    public List<LoanReturnResultDTO> returnBooks(@Valid @RequestBody LoanReturnRequestDTO dto) {
+        return returnService.returnLoans(dto.getIds(), dto.getIsbns());
+    }
+
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public Page<LoanDTO> findByFilter(LoanFilterDTO dto, Pageable pageable) {
-        Page<Loan> result = loanService.find(dto, pageable);
-        return result.map( loan -> mapper.map(loan, LoanDTO.class));
+        return loanService.findDtos(dto, pageable);
+    }
+
+    @GetMapping(params = {"withTotal=false", "!cursor"})
+    @ResponseStatus(HttpStatus.OK)
+    public SliceDTO<LoanDTO> findByFilterWithoutTotal(LoanFilterDTO dto, Pageable pageable) {
+        return SliceDTO.of(loanService.findSlice(dto, pageable).map(mapper::toDto));
+    }
+
+    @GetMapping(params = "cursor")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageDTO<LoanDTO> findByCursor(LoanFilterDTO dto, @RequestParam("cursor") String cursor,
+                                               @RequestParam(value = "size", defaultValue = "20") int size) {
+        int limit = CursorCodec.limit(size);
+        List<Loan> result = loanService.findAfter(dto, CursorCodec.decode(cursor), limit + 1);
+        return CursorCodec.page(result, limit, Loan::getId, mapper::toDto);
     }
 
 }
@@ -0,0 +1,31 @@
+package com.leandro.api.resource;
+
+import com.leandro.service.support.MailTemplates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/mail-templates")
+public class MailTemplateController {
+
+    private MailTemplates mailTemplates;
+
+    @Autowired
+    public MailTemplateController(MailTemplates mailTemplates) {
+        this.mailTemplates = mailTemplates;
+    }
+
+    @PostMapping("reload")
+    @ResponseStatus(HttpStatus.OK)
+    public Set<String> reload() {
+        try {
+            return mailTemplates.reload();
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), e);
+        }
+    }
+}
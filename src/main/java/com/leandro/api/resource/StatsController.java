@@ -0,0 +1,64 @@
+package com.leandro.api.resource;
+
+import com.leandro.api.dto.BookLoanStatsDTO;
+import com.leandro.api.dto.CustomerLoanStatsDTO;
+import com.leandro.api.dto.LoanArchiveStatsDTO;
+import com.leandro.api.dto.LoanStatsDTO;
+import com.leandro.service.LoanArchiveService;
+import com.leandro.service.LoanStatsService;
+import com.leandro.service.support.EmailOutboxDispatcher;
+import com.leandro.service.support.IsbnCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private IsbnCache isbnCache;
+    private LoanStatsService loanStatsService;
+    private LoanArchiveService loanArchiveService;
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    public StatsController(IsbnCache isbnCache, LoanStatsService loanStatsService, LoanArchiveService loanArchiveService,
+                           EmailOutboxDispatcher emailOutboxDispatcher) {
+        this.isbnCache = isbnCache;
+        this.loanStatsService = loanStatsService;
+        this.loanArchiveService = loanArchiveService;
+        this.emailOutboxDispatcher = emailOutboxDispatcher;
+    }
+
+    @GetMapping("isbn-cache")
+    public IsbnCache.Stats isbnCache() {
+        return isbnCache.stats();
+    }
+
+    @GetMapping("loans")
+    public LoanStatsDTO loans() {
+        return loanStatsService.getStats();
+    }
+
+    @GetMapping("loans/books/{id}")
+    public BookLoanStatsDTO bookLoans(@PathVariable Long id) {
+        return loanStatsService.getBookStats(id);
+    }
+
+    @GetMapping("loans/customers/{email:.+}")
+    public CustomerLoanStatsDTO customerLoans(@PathVariable String email) {
+        return loanStatsService.getCustomerStats(email);
+    }
+
+    @GetMapping("loan-archive")
+    public LoanArchiveStatsDTO loanArchive() {
+        return loanArchiveService.getStats();
+    }
+
+    @GetMapping("email-outbox")
+    public EmailOutboxDispatcher.Stats emailOutbox() {
+        return emailOutboxDispatcher.stats();
+    }
+}
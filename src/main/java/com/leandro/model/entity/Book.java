@@ -10,12 +10,13 @@ import javax.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "book")
+@Table(name = "book", uniqueConstraints = @UniqueConstraint(name = "uk_book_isbn", columnNames = "isbn"))
 public class Book {
 
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -26,4 +27,11 @@ public class Book {
 
     @Column
     private String isbn;
+
+    @Version
+    @Column
+    private Long version;
+
+    @Column(name = "id_active_loan", insertable = false, updatable = false)
+    private Long activeLoanId;
 }
@@ -0,0 +1,25 @@
+package com.leandro.model.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "book_loan_stats", indexes = @Index(name = "idx_book_loan_stats_loans", columnList = "loans, book_id"))
+public class BookLoanStats {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(nullable = false)
+    private long loans;
+
+    @Column(name = "open_loans", nullable = false)
+    private long openLoans;
+}
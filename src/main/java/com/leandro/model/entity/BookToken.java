@@ -0,0 +1,27 @@
+package com.leandro.model.entity;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "book_token", indexes = @Index(name = "idx_book_token_book_id", columnList = "book_id"))
+public class BookToken implements Persistable<BookTokenId> {
+
+    @EmbeddedId
+    private BookTokenId id;
+
+    @Override
+    public boolean isNew() {
+        // tokens are always rewritten after a delete, so skip the merge lookup on save
+        return true;
+    }
+}
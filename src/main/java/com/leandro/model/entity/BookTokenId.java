@@ -0,0 +1,24 @@
+package com.leandro.model.entity;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class BookTokenId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(length = 64)
+    private String token;
+
+    @Column(name = "book_id")
+    private Long bookId;
+}
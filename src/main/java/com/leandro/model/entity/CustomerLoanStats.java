@@ -0,0 +1,25 @@
+package com.leandro.model.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "customer_loan_stats")
+public class CustomerLoanStats {
+
+    @Id
+    @Column(name = "customer_email")
+    private String customerEmail;
+
+    @Column(nullable = false)
+    private long loans;
+
+    @Column(name = "open_loans", nullable = false)
+    private long openLoans;
+}
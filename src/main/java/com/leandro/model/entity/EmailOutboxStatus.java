@@ -0,0 +1,8 @@
+package com.leandro.model.entity;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
@@ -0,0 +1,43 @@
+package com.leandro.model.entity;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "job_lease")
+public class JobLease implements Persistable<String> {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(length = 100, nullable = false)
+    private String owner;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -5,6 +5,7 @@ import org.hibernate.annotations.CreationTimestamp;
 
 import javax.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
@@ -12,6 +13,11 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(name = "loan", indexes = {
+        @Index(name = "idx_loan_returned_due_date", columnList = "returned, due_date"),
+        @Index(name = "idx_loan_customer_email", columnList = "customer_email, id"),
+        @Index(name = "idx_loan_returned_next_notification", columnList = "returned, next_notification_date")
+})
 public class Loan {
 
     @Id
@@ -25,7 +31,7 @@ public class Loan {
     @Column(name = "customer_email")
     private String customerEmail;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_book")
     private Book book;
 
@@ -33,7 +39,23 @@ public class Loan {
     @CreationTimestamp
     private LocalDate loanDate;
 
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
     @Column(columnDefinition = "boolean default false", insertable = false, updatable = true)
     private Boolean returned;
 
+    @Column(name = "last_notified_at")
+    private LocalDateTime lastNotifiedAt;
+
+    @Column(name = "notification_count", columnDefinition = "integer default 0", insertable = false)
+    private Integer notificationCount;
+
+    @Column(name = "next_notification_date")
+    private LocalDate nextNotificationDate;
+
+    @Version
+    @Column
+    private Long version;
+
 }
@@ -0,0 +1,35 @@
+package com.leandro.model.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "loan_archive", indexes = @Index(name = "idx_loan_archive_book_id", columnList = "id_book, id"))
+public class LoanArchive {
+
+    @Id
+    @Column
+    private Long id;
+
+    @Column
+    private String customer;
+
+    @Column(name = "customer_email")
+    private String customerEmail;
+
+    @Column(name = "id_book")
+    private Long bookId;
+
+    @Column
+    private LocalDate loanDate;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+}
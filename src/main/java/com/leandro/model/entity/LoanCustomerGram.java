@@ -0,0 +1,26 @@
+package com.leandro.model.entity;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "loan_customer_gram", indexes = @Index(name = "idx_loan_customer_gram_loan_id", columnList = "loan_id"))
+public class LoanCustomerGram implements Persistable<LoanCustomerGramId> {
+
+    @EmbeddedId
+    private LoanCustomerGramId id;
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package com.leandro.model.entity;
+
+import lombok.*;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class LoanCustomerGramId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Column(length = 12)
+    private String gram;
+
+    @Column(name = "loan_id")
+    private Long loanId;
+}
@@ -0,0 +1,25 @@
+package com.leandro.model.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "loan_totals")
+public class LoanTotals {
+
+    @Id
+    @Column
+    private Integer slot;
+
+    @Column(nullable = false)
+    private long loans;
+
+    @Column(name = "open_loans", nullable = false)
+    private long openLoans;
+}
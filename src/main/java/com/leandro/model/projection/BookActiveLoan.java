@@ -0,0 +1,12 @@
+package com.leandro.model.projection;
+
+public interface BookActiveLoan {
+
+    Long getId();
+
+    String getIsbn();
+
+    Long getActiveLoanId();
+
+    String getCustomerEmail();
+}
@@ -0,0 +1,8 @@
+package com.leandro.model.projection;
+
+public interface BookIdentity {
+
+    Long getId();
+
+    String getIsbn();
+}
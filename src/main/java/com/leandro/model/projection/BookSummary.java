@@ -0,0 +1,15 @@
+package com.leandro.model.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookSummary {
+
+    private final Long id;
+    private final String title;
+    private final String author;
+    private final String isbn;
+    private final Long version;
+}
@@ -0,0 +1,18 @@
+package com.leandro.model.projection;
+
+import java.time.LocalDate;
+
+public interface LateLoanProjection {
+
+    Long getId();
+
+    String getCustomer();
+
+    String getCustomerEmail();
+
+    String getBookTitle();
+
+    LocalDate getDueDate();
+
+    LocalDate getNextNotificationDate();
+}
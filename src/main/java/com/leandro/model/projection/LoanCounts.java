@@ -0,0 +1,8 @@
+package com.leandro.model.projection;
+
+public interface LoanCounts {
+
+    Long getLoans();
+
+    Long getOpenLoans();
+}
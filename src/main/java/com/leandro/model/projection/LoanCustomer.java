@@ -0,0 +1,8 @@
+package com.leandro.model.projection;
+
+public interface LoanCustomer {
+
+    Long getId();
+
+    String getCustomer();
+}
@@ -0,0 +1,10 @@
+package com.leandro.model.projection;
+
+import java.time.LocalDate;
+
+public interface LoanDueDate {
+
+    Long getId();
+
+    LocalDate getDueDate();
+}
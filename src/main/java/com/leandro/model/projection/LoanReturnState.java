@@ -0,0 +1,12 @@
+package com.leandro.model.projection;
+
+public interface LoanReturnState {
+
+    Long getId();
+
+    Long getBookId();
+
+    String getCustomerEmail();
+
+    Boolean getReturned();
+}
@@ -0,0 +1,17 @@
+package com.leandro.model.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LoanSummary {
+
+    private final Long id;
+    private final Long bookId;
+    private final String bookTitle;
+    private final String bookAuthor;
+    private final String bookIsbn;
+    private final String customer;
+    private final String customerEmail;
+}
@@ -0,0 +1,30 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.BookLoanStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BookLoanStatsRepository extends JpaRepository<BookLoanStats, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("update BookLoanStats s set s.loans = s.loans + 1, s.openLoans = s.openLoans + 1 where s.bookId = :bookId")
+    int incrementLoans(@Param("bookId") Long bookId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update BookLoanStats s set s.openLoans = s.openLoans - 1 where s.bookId = :bookId and s.openLoans > 0")
+    int decrementOpenLoans(@Param("bookId") Long bookId);
+
+    @Query("select s from BookLoanStats s order by s.loans desc, s.bookId")
+    List<BookLoanStats> findTop(Pageable pageable);
+
+    @Modifying
+    @Query("insert into BookLoanStats (bookId, loans, openLoans) " +
+            "select l.book.id, count(l), sum(case when l.returned = true then 0 else 1 end) " +
+            "from Loan l where l.book is not null group by l.book.id")
+    int backfill();
+}
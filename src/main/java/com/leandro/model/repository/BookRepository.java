@@ -1,13 +1,88 @@
 package com.leandro.model.repository;
 
 import com.leandro.model.entity.Book;
+import com.leandro.model.projection.BookActiveLoan;
+import com.leandro.model.projection.BookIdentity;
+import com.leandro.model.projection.BookSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
-    boolean existsByIsbn(String isbn);
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
 
     Optional<Book> findByIsbn(String isbn);
+
+    List<BookIdentity> findByIsbnIn(Collection<String> isbns);
+
+    @Query("select new com.leandro.model.projection.BookSummary(b.id, b.title, b.author, b.isbn, b.version) from Book b where b.id = :id")
+    Optional<BookSummary> findSummaryById(@Param("id") Long id);
+
+    @Query("select b.version from Book b where b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    boolean existsByIdAndActiveLoanIdIsNotNull(Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Book b set b.activeLoanId = :loanId where b.id = :bookId and b.activeLoanId is null")
+    int markLoaned(@Param("bookId") Long bookId, @Param("loanId") Long loanId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Book b set b.activeLoanId = null where b.id = :bookId and b.activeLoanId = :loanId")
+    int releaseLoan(@Param("bookId") Long bookId, @Param("loanId") Long loanId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Book b set b.activeLoanId = null where b.activeLoanId in :loanIds")
+    int releaseLoans(@Param("loanIds") Collection<Long> loanIds);
+
+    @Query("select b.id as id, b.isbn as isbn, b.activeLoanId as activeLoanId, l.customerEmail as customerEmail " +
+            "from Book b left join Loan l on l.id = b.activeLoanId where b.isbn in :isbns")
+    List<BookActiveLoan> findActiveLoansByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Book b set b.activeLoanId = (select max(l.id) from Loan l where l.book.id = b.id and (l.returned is null or l.returned = false)) " +
+            "where b.activeLoanId is null and exists (select l.id from Loan l where l.book.id = b.id and (l.returned is null or l.returned = false))")
+    int fillMissingActiveLoans();
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Book b set b.activeLoanId = (select max(l.id) from Loan l where l.book.id = b.id and (l.returned is null or l.returned = false)) where b.id in :ids")
+    int backfillActiveLoans(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.id from Book b where " +
+            "(b.activeLoanId is null and exists (select l.id from Loan l where l.book.id = b.id and (l.returned is null or l.returned = false))) or " +
+            "(b.activeLoanId is not null and not exists (select l.id from Loan l where l.id = b.activeLoanId and l.book.id = b.id and (l.returned is null or l.returned = false)))")
+    List<Long> findInconsistentActiveLoans();
+
+    @Query("select b from Book b where b.id > :lastId " +
+            "and not exists (select t from BookToken t where t.id.bookId = b.id) order by b.id")
+    List<Book> findUnindexed(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("select b.id from Book b where b.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select b from Book b order by b.id")
+    Stream<Book> streamAll();
 }
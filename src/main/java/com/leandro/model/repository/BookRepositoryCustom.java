@@ -0,0 +1,19 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.Book;
+import com.leandro.model.projection.BookSummary;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public interface BookRepositoryCustom {
+
+    List<Book> findAllAfter(Example<Book> example, Long lastId, int limit);
+
+    Slice<Book> findSlice(Example<Book> example, Pageable pageable);
+
+    Page<BookSummary> findSummaries(Example<Book> example, Pageable pageable);
+}
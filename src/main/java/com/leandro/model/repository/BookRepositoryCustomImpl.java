@@ -0,0 +1,39 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.Book;
+import com.leandro.model.projection.BookSummary;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import javax.persistence.criteria.Selection;
+import java.util.List;
+
+public class BookRepositoryCustomImpl extends ExampleQuerySupport<Book> implements BookRepositoryCustom {
+
+    public BookRepositoryCustomImpl() {
+        super(Book.class);
+    }
+
+    @Override
+    public List<Book> findAllAfter(Example<Book> example, Long lastId, int limit) {
+        return seek(example, lastId, limit);
+    }
+
+    @Override
+    public Slice<Book> findSlice(Example<Book> example, Pageable pageable) {
+        return slice(example, pageable);
+    }
+
+    @Override
+    public Page<BookSummary> findSummaries(Example<Book> example, Pageable pageable) {
+        return project(example, pageable, BookSummary.class, root -> new Selection<?>[]{
+                root.get("id"),
+                root.get("title"),
+                root.get("author"),
+                root.get("isbn"),
+                root.get("version")
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.BookToken;
+import com.leandro.model.entity.BookTokenId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public interface BookTokenRepository extends JpaRepository<BookToken, BookTokenId> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from BookToken t where t.id.bookId = :bookId")
+    void deleteByBookId(@Param("bookId") Long bookId);
+
+    @Query(value = "select t.id.bookId from BookToken t where t.id.token in :tokens " +
+            "group by t.id.bookId order by count(t.id.token) desc, t.id.bookId asc",
+            countQuery = "select count(distinct t.id.bookId) from BookToken t where t.id.token in :tokens")
+    Page<Long> searchBookIds(@Param("tokens") Collection<String> tokens, Pageable pageable);
+}
@@ -0,0 +1,24 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.CustomerLoanStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CustomerLoanStatsRepository extends JpaRepository<CustomerLoanStats, String> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("update CustomerLoanStats s set s.loans = s.loans + 1, s.openLoans = s.openLoans + 1 where s.customerEmail = :email")
+    int incrementLoans(@Param("email") String email);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update CustomerLoanStats s set s.openLoans = s.openLoans - 1 where s.customerEmail = :email and s.openLoans > 0")
+    int decrementOpenLoans(@Param("email") String email);
+
+    @Modifying
+    @Query("insert into CustomerLoanStats (customerEmail, loans, openLoans) " +
+            "select l.customerEmail, count(l), sum(case when l.returned = true then 0 else 1 end) " +
+            "from Loan l where l.customerEmail is not null group by l.customerEmail")
+    int backfill();
+}
@@ -0,0 +1,58 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.EmailOutbox;
+import com.leandro.model.entity.EmailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("select o.id from EmailOutbox o where o.status = com.leandro.model.entity.EmailOutboxStatus.PENDING " +
+            "and o.nextAttemptAt <= :now order by o.nextAttemptAt, o.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox o set o.status = com.leandro.model.entity.EmailOutboxStatus.SENDING, " +
+            "o.claimToken = :token, o.claimedAt = :now " +
+            "where o.id in :ids and o.status = com.leandro.model.entity.EmailOutboxStatus.PENDING")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    List<EmailOutbox> findByClaimToken(String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox o set o.status = com.leandro.model.entity.EmailOutboxStatus.SENT, " +
+            "o.attempts = o.attempts + 1, o.sentAt = :now, o.lastError = null " +
+            "where o.id in :ids and o.claimToken = :token and o.status = com.leandro.model.entity.EmailOutboxStatus.SENDING")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox o set o.status = :status, o.attempts = o.attempts + 1, " +
+            "o.nextAttemptAt = :nextAttemptAt, o.lastError = :error " +
+            "where o.id = :id and o.claimToken = :token and o.status = com.leandro.model.entity.EmailOutboxStatus.SENDING")
+    int markFailed(@Param("id") Long id, @Param("token") String token, @Param("status") EmailOutboxStatus status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox o set o.status = com.leandro.model.entity.EmailOutboxStatus.PENDING " +
+            "where o.status = com.leandro.model.entity.EmailOutboxStatus.SENDING and o.claimedAt < :before")
+    int releaseStale(@Param("before") LocalDateTime before);
+
+    @Transactional
+    @Modifying
+    @Query("delete from EmailOutbox o where o.status = com.leandro.model.entity.EmailOutboxStatus.SENT and o.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+
+    long countByStatus(EmailOutboxStatus status);
+}
@@ -0,0 +1,154 @@
+package com.leandro.model.repository;
+
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+public abstract class ExampleQuerySupport<T> {
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    private final Class<T> domainClass;
+
+    protected ExampleQuerySupport(Class<T> domainClass) {
+        this.domainClass = domainClass;
+    }
+
+    protected List<T> seek(Example<T> example, Long lastId, int limit) {
+        return seek(example, null, lastId, limit);
+    }
+
+    protected List<T> seek(Example<T> example, Specification<T> restriction, Long lastId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+
+        List<Predicate> predicates = new ArrayList<>(Arrays.asList(predicatesOf(example, restriction, root, query, cb)));
+        if (lastId != null) {
+            predicates.add(cb.greaterThan(root.<Long>get("id"), lastId));
+        }
+
+        fetch(root);
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    protected Slice<T> slice(Example<T> example, Pageable pageable) {
+        return slice(example, null, pageable);
+    }
+
+    protected Slice<T> slice(Example<T> example, Specification<T> restriction, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+
+        fetch(root);
+        query.select(root);
+        query.where(predicatesOf(example, restriction, root, query, cb));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        List<T> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    protected void fetch(Root<T> root) {
+    }
+
+    protected <R> Page<R> project(Example<T> example, Pageable pageable, Class<R> resultClass,
+                                  Function<Root<T>, Selection<?>[]> columns) {
+        return project(example, null, pageable, resultClass, columns);
+    }
+
+    protected <R> Page<R> project(Example<T> example, Specification<T> restriction, Pageable pageable, Class<R> resultClass,
+                                  Function<Root<T>, Selection<?>[]> columns) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(resultClass);
+        Root<T> root = query.from(domainClass);
+
+        query.select(cb.construct(resultClass, columns.apply(root)));
+        query.where(predicatesOf(example, restriction, root, query, cb));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<R> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(example, restriction));
+    }
+
+    protected long count(Example<T> example) {
+        return count(example, null);
+    }
+
+    protected long count(Example<T> example, Specification<T> restriction) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+
+        query.select(cb.count(root));
+        query.where(predicatesOf(example, restriction, root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Predicate[] predicatesOf(Example<T> example, Specification<T> restriction, Root<T> root,
+                                     CriteriaQuery<?> query, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>(2);
+        Predicate byExample = QueryByExamplePredicateBuilder.getPredicate(root, cb, example);
+        if (byExample != null) {
+            predicates.add(byExample);
+        }
+        if (restriction != null) {
+            Predicate restricted = restriction.toPredicate(root, query, cb);
+            if (restricted != null) {
+                predicates.add(restricted);
+            }
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <X> Join<T, X> joinOf(Root<T> root, String attribute) {
+        return (Join<T, X>) root.getJoins()
+                .stream()
+                .filter(join -> join.getAttribute().getName().equals(attribute))
+                .findFirst()
+                .orElseGet(() -> root.join(attribute, JoinType.LEFT));
+    }
+}
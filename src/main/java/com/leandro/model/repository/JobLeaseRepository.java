@@ -0,0 +1,25 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    @Transactional
+    @Modifying
+    @Query("update JobLease l set l.owner = :owner, l.lockedAt = :now, l.lockedUntil = :until " +
+            "where l.name = :name and l.lockedUntil <= :now")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("update JobLease l set l.lockedUntil = :until where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+}
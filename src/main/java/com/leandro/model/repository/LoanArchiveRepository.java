@@ -0,0 +1,26 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.LoanArchive;
+import com.leandro.model.projection.LoanSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+public interface LoanArchiveRepository extends JpaRepository<LoanArchive, Long> {
+
+    @Modifying
+    @Query("insert into LoanArchive (id, customer, customerEmail, bookId, loanDate, dueDate) " +
+            "select l.id, l.customer, l.customerEmail, l.book.id, l.loanDate, l.dueDate from Loan l " +
+            "where l.id in :ids and l.returned = true")
+    int copyFromLoans(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select new com.leandro.model.projection.LoanSummary(a.id, b.id, b.title, b.author, b.isbn, a.customer, a.customerEmail) " +
+            "from LoanArchive a, Book b where b.id = a.bookId and a.bookId = :bookId",
+            countQuery = "select count(a) from LoanArchive a where a.bookId = :bookId")
+    Page<LoanSummary> findSummariesByBookId(@Param("bookId") Long bookId, Pageable pageable);
+}
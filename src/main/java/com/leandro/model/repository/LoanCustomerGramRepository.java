@@ -0,0 +1,17 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.LoanCustomerGram;
+import com.leandro.model.entity.LoanCustomerGramId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+public interface LoanCustomerGramRepository extends JpaRepository<LoanCustomerGram, LoanCustomerGramId> {
+
+    @Modifying
+    @Query("delete from LoanCustomerGram g where g.id.loanId in :loanIds")
+    int deleteByLoanIds(@Param("loanIds") Collection<Long> loanIds);
+}
@@ -2,21 +2,132 @@ package com.leandro.model.repository;
 
 import com.leandro.model.entity.Book;
 import com.leandro.model.entity.Loan;
+import com.leandro.model.projection.LateLoanProjection;
+import com.leandro.model.projection.LoanCounts;
+import com.leandro.model.projection.LoanCustomer;
+import com.leandro.model.projection.LoanDueDate;
+import com.leandro.model.projection.LoanReturnState;
+import com.leandro.model.projection.LoanSummary;
+import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface LoanRepository extends JpaRepository<Loan, Long> {
+public interface LoanRepository extends JpaRepository<Loan, Long>, LoanRepositoryCustom {
 
-    @Query(value = "select case when ( count(l.id) > 0 ) then true else false end from Loan l where l.book = :book AND (l.returned is null or l.returned is not true )")
-    boolean existsByBookAndNotReturned(@Param("book") Book book);
+    @Query("select l.version from Loan l where l.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 
+    @Override
+    @EntityGraph(attributePaths = "book")
+    Optional<Loan> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "book")
+    <S extends Loan> Page<S> findAll(Example<S> example, Pageable pageable);
+
+    @EntityGraph(attributePaths = "book")
     Page<Loan> findByBook(Book book, Pageable pageable);
 
-    List<Loan> findAllByLoanDateBeforeAndReturnedIsFalse(LocalDate localDate);
+    @Query(value = "select new com.leandro.model.projection.LoanSummary(l.id, b.id, b.title, b.author, b.isbn, l.customer, l.customerEmail) " +
+            "from Loan l join l.book b where b.id = :bookId",
+            countQuery = "select count(l) from Loan l where l.book.id = :bookId")
+    Page<LoanSummary> findSummariesByBookId(@Param("bookId") Long bookId, Pageable pageable);
+
+    @Query(value = "select new com.leandro.model.projection.LoanSummary(l.id, b.id, b.title, b.author, b.isbn, l.customer, l.customerEmail) " +
+            "from Loan l left join l.book b where l.customerEmail = :email",
+            countQuery = "select count(l) from Loan l where l.customerEmail = :email")
+    Page<LoanSummary> findSummariesByCustomerEmail(@Param("email") String email, Pageable pageable);
+
+    @Query("select l.id as id, l.customer as customer from Loan l where l.id > :lastId " +
+            "and not exists (select g from LoanCustomerGram g where g.id.loanId = l.id) order by l.id")
+    List<LoanCustomer> findUnindexedCustomers(@Param("lastId") Long lastId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "book")
+    Slice<Loan> findSliceByBook(Book book, Pageable pageable);
+
+    @Query("select l.id as id, b.id as bookId, l.customerEmail as customerEmail, l.returned as returned from Loan l left join l.book b where l.id in :ids")
+    List<LoanReturnState> findReturnStates(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l.id from Loan l where l.id in :ids and (l.returned is null or l.returned = false)")
+    List<Long> lockOpenLoanIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Loan l set l.returned = true, l.version = coalesce(l.version, 0) + 1 " +
+            "where l.id in :ids and (l.returned is null or l.returned = false)")
+    int markReturned(@Param("ids") Collection<Long> ids);
+
+    @Query("select count(l) as loans, coalesce(sum(case when l.returned = true then 0 else 1 end), 0) as openLoans from Loan l")
+    LoanCounts countLoans();
+
+    @Query("select distinct l.book.id from Loan l where l.returned is null or l.returned = false")
+    List<Long> findLoanedBookIds();
+
+    @Query("select l.id as id, l.customer as customer, l.customerEmail as customerEmail, b.title as bookTitle, " +
+            "l.dueDate as dueDate, l.nextNotificationDate as nextNotificationDate " +
+            "from Loan l left join l.book b " +
+            "where l.returned = false and l.nextNotificationDate <= :today " +
+            "and (l.nextNotificationDate > :lastDate or (l.nextNotificationDate = :lastDate and l.id > :lastId)) " +
+            "order by l.nextNotificationDate, l.id")
+    List<LateLoanProjection> findDueReminders(@Param("today") LocalDate today, @Param("lastDate") LocalDate lastDate,
+                                              @Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("select l.id as id, l.customer as customer, l.customerEmail as customerEmail, b.title as bookTitle, " +
+            "l.dueDate as dueDate, l.nextNotificationDate as nextNotificationDate " +
+            "from Loan l left join l.book b " +
+            "where l.id in :ids and l.returned = false and l.dueDate < :today and l.nextNotificationDate <= :today")
+    List<LateLoanProjection> findLateLoansByIds(@Param("ids") Collection<Long> ids, @Param("today") LocalDate today);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Loan l set l.lastNotifiedAt = :now, l.notificationCount = coalesce(l.notificationCount, 0) + 1, " +
+            "l.nextNotificationDate = :nextDate where l.id in :ids")
+    int markNotified(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now, @Param("nextDate") LocalDate nextDate);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Loan l set l.nextNotificationDate = null where l.id in :ids and l.notificationCount >= :maxReminders")
+    int stopReminders(@Param("ids") Collection<Long> ids, @Param("maxReminders") Integer maxReminders);
+
+    @Query("select l.id as id, l.dueDate as dueDate from Loan l " +
+            "where l.returned = false and l.dueDate >= :today and l.id > :lastId order by l.id")
+    List<LoanDueDate> findPendingDueDates(@Param("today") LocalDate today, @Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("select l.id from Loan l where l.returned = true and l.dueDate < :cutoff order by l.dueDate, l.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Loan l where l.id in :ids and l.returned = true")
+    int deleteReturned(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct l.dueDate from Loan l where l.nextNotificationDate is null and l.dueDate is not null " +
+            "and l.returned = false and (l.notificationCount is null or l.notificationCount = 0)")
+    List<LocalDate> findDueDatesWithoutReminder();
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Loan l set l.nextNotificationDate = :nextDate where l.nextNotificationDate is null and l.dueDate = :dueDate " +
+            "and l.returned = false and (l.notificationCount is null or l.notificationCount = 0)")
+    int backfillNextNotificationDate(@Param("dueDate") LocalDate dueDate, @Param("nextDate") LocalDate nextDate);
+
+    @Query("select distinct l.loanDate from Loan l where l.dueDate is null and l.loanDate is not null")
+    List<LocalDate> findLoanDatesWithoutDueDate();
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Loan l set l.dueDate = :dueDate where l.dueDate is null and l.loanDate = :loanDate")
+    int backfillDueDate(@Param("loanDate") LocalDate loanDate, @Param("dueDate") LocalDate dueDate);
 }
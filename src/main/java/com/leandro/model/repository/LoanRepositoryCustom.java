@@ -0,0 +1,20 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.Loan;
+import com.leandro.model.projection.LoanSummary;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LoanRepositoryCustom {
+
+    List<Loan> findAllAfter(Example<Loan> example, Collection<String> customerGrams, Long lastId, int limit);
+
+    Slice<Loan> findSlice(Example<Loan> example, Collection<String> customerGrams, Pageable pageable);
+
+    Page<LoanSummary> findSummaries(Example<Loan> example, Collection<String> customerGrams, Pageable pageable);
+}
@@ -0,0 +1,74 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.Book;
+import com.leandro.model.entity.Loan;
+import com.leandro.model.entity.LoanCustomerGram;
+import com.leandro.model.projection.LoanSummary;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.criteria.Subquery;
+import java.util.Collection;
+import java.util.List;
+
+public class LoanRepositoryCustomImpl extends ExampleQuerySupport<Loan> implements LoanRepositoryCustom {
+
+    public LoanRepositoryCustomImpl() {
+        super(Loan.class);
+    }
+
+    @Override
+    protected void fetch(Root<Loan> root) {
+        root.fetch("book", JoinType.LEFT);
+    }
+
+    @Override
+    public List<Loan> findAllAfter(Example<Loan> example, Collection<String> customerGrams, Long lastId, int limit) {
+        return seek(example, withCustomerGrams(customerGrams), lastId, limit);
+    }
+
+    @Override
+    public Slice<Loan> findSlice(Example<Loan> example, Collection<String> customerGrams, Pageable pageable) {
+        return slice(example, withCustomerGrams(customerGrams), pageable);
+    }
+
+    @Override
+    public Page<LoanSummary> findSummaries(Example<Loan> example, Collection<String> customerGrams, Pageable pageable) {
+        return project(example, withCustomerGrams(customerGrams), pageable, LoanSummary.class, root -> {
+            Join<Loan, Book> book = joinOf(root, "book");
+            return new Selection<?>[]{
+                    root.get("id"),
+                    book.get("id"),
+                    book.get("title"),
+                    book.get("author"),
+                    book.get("isbn"),
+                    root.get("customer"),
+                    root.get("customerEmail")
+            };
+        });
+    }
+
+    private Specification<Loan> withCustomerGrams(Collection<String> grams) {
+        if (grams == null || grams.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Long> matching = query.subquery(Long.class);
+            Root<LoanCustomerGram> gram = matching.from(LoanCustomerGram.class);
+            Path<Long> loanId = gram.get("id").get("loanId");
+            matching.select(loanId)
+                    .where(gram.get("id").get("gram").in(grams))
+                    .groupBy(loanId)
+                    .having(cb.equal(cb.count(gram.get("id").get("gram")), (long) grams.size()));
+            return root.get("id").in(matching);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.leandro.model.repository;
+
+import com.leandro.model.entity.LoanTotals;
+import com.leandro.model.projection.LoanCounts;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LoanTotalsRepository extends JpaRepository<LoanTotals, Integer> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("update LoanTotals t set t.loans = t.loans + 1, t.openLoans = t.openLoans + 1 where t.slot = :slot")
+    int incrementLoans(@Param("slot") Integer slot);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update LoanTotals t set t.openLoans = t.openLoans - 1 where t.slot = :slot")
+    int decrementOpenLoans(@Param("slot") Integer slot);
+
+    @Query("select coalesce(sum(t.loans), 0) as loans, coalesce(sum(t.openLoans), 0) as openLoans from LoanTotals t")
+    LoanCounts sum();
+}
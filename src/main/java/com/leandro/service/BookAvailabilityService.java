@@ -0,0 +1,11 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.BookAvailabilityDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookAvailabilityService {
+
+    List<BookAvailabilityDTO> check(Collection<Long> ids, Collection<String> isbns);
+}
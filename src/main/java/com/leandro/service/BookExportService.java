@@ -0,0 +1,9 @@
+package com.leandro.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+
+    long export(ExportFormat format, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.BookDTO;
+import com.leandro.api.dto.BookImportResultDTO;
+
+import java.util.Iterator;
+
+public interface BookImportService {
+
+    BookImportResultDTO importBooks(Iterator<BookDTO> books);
+}
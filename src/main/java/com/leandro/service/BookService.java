@@ -1,22 +1,41 @@
 package com.leandro.service;
 
+import com.leandro.api.dto.BookDTO;
 import com.leandro.model.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface BookService {
 
     Book save(Book book);
 
+    List<Book> saveAll(List<Book> books);
+
     Optional<Book> getById(Long id);
 
+    Optional<Long> getVersion(Long id);
+
+    Optional<BookDTO> getDetails(Long id);
+
+    boolean exists(Long id);
+
     void delete(Book book);
 
     Book update(Book book);
 
     Page<Book> find(Book filter, Pageable pageRequest);
 
+    Page<BookDTO> findDtos(Book filter, Pageable pageRequest);
+
+    Slice<Book> findSlice(Book filter, Pageable pageRequest);
+
+    List<Book> findAfter(Book filter, Long lastId, int limit);
+
+    Page<Book> search(String query, Pageable pageable);
+
     Optional<Book> findByIsbn(String isbn);
 }
@@ -1,5 +1,6 @@
 package com.leandro.service;
 
+import com.leandro.service.support.RenderedMail;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -7,5 +8,5 @@ import java.util.List;
 @Service
 public interface EmailService {
 
-    void sendMails(String message, List<String> emailList);
+    void sendMails(List<RenderedMail> mails);
 }
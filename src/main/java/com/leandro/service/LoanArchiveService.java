@@ -0,0 +1,15 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.LoanArchiveStatsDTO;
+import com.leandro.api.dto.LoanDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface LoanArchiveService {
+
+    int archive();
+
+    Page<LoanDTO> findHistoryByBook(Long bookId, Pageable pageable);
+
+    LoanArchiveStatsDTO getStats();
+}
@@ -0,0 +1,11 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.LoanReturnResultDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LoanReturnService {
+
+    List<LoanReturnResultDTO> returnLoans(Collection<Long> ids, Collection<String> isbns);
+}
@@ -1,13 +1,18 @@
 package com.leandro.service;
 
+import com.leandro.api.dto.LoanDTO;
 import com.leandro.api.dto.LoanFilterDTO;
 import com.leandro.model.entity.Book;
 import com.leandro.model.entity.Loan;
+import com.leandro.model.projection.LateLoanProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LoanService {
 
@@ -15,11 +20,29 @@ public interface LoanService {
 
     Optional<Loan> findById(Long id);
 
+    Optional<Long> getVersion(Long id);
+
     Loan update(Loan loan);
 
     Page<Loan> find(LoanFilterDTO loan, Pageable pageable);
 
+    Page<LoanDTO> findDtos(LoanFilterDTO filter, Pageable pageable);
+
+    Slice<Loan> findSlice(LoanFilterDTO filter, Pageable pageable);
+
+    List<Loan> findAfter(LoanFilterDTO filter, Long lastId, int limit);
+
     Page<Loan> findLoansByBook(Book book, Pageable pageable);
 
-    List<Loan> getAllLateLoans();
+    Page<LoanDTO> findLoanDtosByBook(Long bookId, Pageable pageable);
+
+    Page<LoanDTO> findLoanDtosByCustomer(String customerEmail, Pageable pageable);
+
+    Slice<Loan> findLoanSliceByBook(Book book, Pageable pageable);
+
+    List<LateLoanProjection> findLateLoans(Collection<Long> ids);
+
+    void scanLateLoans(Consumer<List<LateLoanProjection>> consumer);
+
+    void markNotified(Collection<Long> ids);
 }
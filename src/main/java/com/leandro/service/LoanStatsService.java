@@ -0,0 +1,14 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.BookLoanStatsDTO;
+import com.leandro.api.dto.CustomerLoanStatsDTO;
+import com.leandro.api.dto.LoanStatsDTO;
+
+public interface LoanStatsService {
+
+    LoanStatsDTO getStats();
+
+    BookLoanStatsDTO getBookStats(Long bookId);
+
+    CustomerLoanStatsDTO getCustomerStats(String customerEmail);
+}
@@ -1,14 +1,22 @@
 package com.leandro.service;
 
-import com.leandro.model.entity.Loan;
+import com.leandro.model.projection.LateLoanProjection;
+import com.leandro.service.support.JobLeases;
+import com.leandro.service.support.MailTemplates;
+import com.leandro.service.support.RenderedMail;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -16,26 +24,49 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ScheduleService {
 
-    private static final String CRON_LATE_LOANS = "0 0/2 * 1/1 * ?";
-
-    @Value("${application.mail.lateLoans.message}")
-    private String message;
+    private static final DateTimeFormatter DUE_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     private final LoanService loanService;
     private final EmailService emailService;
+    private final JobLeases jobLeases;
+    private final MailTemplates mailTemplates;
 
-    @Scheduled(cron = CRON_LATE_LOANS)
+    @Scheduled(cron = "${application.loans.late-scan.cron:0 0 8 * * *}")
     public void sendMailToLateLoans() {
-        List<Loan> lateLoans = loanService.getAllLateLoans();
-        List<String> emailList = lateLoans.stream()
-                .map(Loan::getCustomerEmail)
-                .collect(Collectors.toList());
-        if(!emailList.isEmpty()) {
+        jobLeases.runExclusive("late-loan-scan", this::scanLateLoans);
+    }
+
+    private void scanLateLoans() {
+        AtomicLong sent = new AtomicLong();
+        loanService.scanLateLoans(lateLoans -> {
             log.info("Email sendo enviado");
-            emailService.sendMails(message, emailList);
-        } else {
+            emailService.sendMails(lateLoanMails(lateLoans));
+            sent.addAndGet(lateLoans.size());
+        });
+        if (sent.get() == 0) {
             log.info("Não há livros atrasados.");
         }
+    }
+
+    @Transactional
+    public void notifyLateLoans(Collection<Long> loanIds) {
+        List<LateLoanProjection> lateLoans = loanService.findLateLoans(loanIds);
+        if (!lateLoans.isEmpty()) {
+            log.info("Email sendo enviado para {} empréstimos que acabaram de vencer.", lateLoans.size());
+            emailService.sendMails(lateLoanMails(lateLoans));
+            loanService.markNotified(lateLoans.stream()
+                    .map(LateLoanProjection::getId)
+                    .collect(Collectors.toList()));
+        }
+    }
 
+    private List<RenderedMail> lateLoanMails(List<LateLoanProjection> lateLoans) {
+        LocalDate today = LocalDate.now();
+        return mailTemplates.render(MailTemplates.LATE_LOAN, lateLoans, LateLoanProjection::getCustomerEmail, loan -> new String[]{
+                loan.getCustomer(),
+                loan.getBookTitle(),
+                loan.getDueDate() == null ? null : DUE_DATE_FORMAT.format(loan.getDueDate()),
+                loan.getDueDate() == null ? null : Long.toString(ChronoUnit.DAYS.between(loan.getDueDate(), today))
+        });
     }
 }
@@ -0,0 +1,19 @@
+package com.leandro.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class LoanCreatedEvent {
+
+    private final Long loanId;
+
+    private final Long bookId;
+
+    private final String customerEmail;
+
+    private final LocalDate dueDate;
+}
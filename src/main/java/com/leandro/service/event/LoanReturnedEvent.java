@@ -0,0 +1,15 @@
+package com.leandro.service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LoanReturnedEvent {
+
+    private final Long loanId;
+
+    private final Long bookId;
+
+    private final String customerEmail;
+}
@@ -0,0 +1,56 @@
+package com.leandro.service.impl;
+
+import com.leandro.api.dto.BookAvailabilityDTO;
+import com.leandro.model.projection.BookIdentity;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.service.BookAvailabilityService;
+import com.leandro.service.support.LoanedBooksIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BookAvailabilityServiceImpl implements BookAvailabilityService {
+
+    private BookRepository bookRepository;
+    private LoanedBooksIndex loanedBooks;
+
+    @Autowired
+    public BookAvailabilityServiceImpl(BookRepository bookRepository, LoanedBooksIndex loanedBooks) {
+        this.bookRepository = bookRepository;
+        this.loanedBooks = loanedBooks;
+    }
+
+    @Override
+    public List<BookAvailabilityDTO> check(Collection<Long> ids, Collection<String> isbns) {
+        List<BookAvailabilityDTO> result = new ArrayList<>();
+        if (ids != null && !ids.isEmpty()) {
+            Set<Long> requested = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+            Set<Long> existing = requested.isEmpty()
+                    ? Collections.emptySet()
+                    : new HashSet<>(bookRepository.findExistingIds(requested));
+            for (Long id : ids) {
+                result.add(new BookAvailabilityDTO(id, null, existing.contains(id) && !loanedBooks.isLoaned(id)));
+            }
+        }
+        if (isbns != null && !isbns.isEmpty()) {
+            Map<String, Long> idsByIsbn = bookRepository.findByIsbnIn(new HashSet<>(isbns))
+                    .stream()
+                    .collect(Collectors.toMap(BookIdentity::getIsbn, BookIdentity::getId));
+            for (String isbn : isbns) {
+                Long id = idsByIsbn.get(isbn);
+                result.add(new BookAvailabilityDTO(id, isbn, id != null && !loanedBooks.isLoaned(id)));
+            }
+        }
+        return result;
+    }
+}
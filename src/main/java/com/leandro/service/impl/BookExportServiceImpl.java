@@ -0,0 +1,92 @@
+package com.leandro.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leandro.api.mapper.BookMapper;
+import com.leandro.model.entity.Book;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.service.BookExportService;
+import com.leandro.service.ExportFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class BookExportServiceImpl implements BookExportService {
+
+    private static final String CSV_HEADER = "id,title,author,isbn";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private BookRepository repository;
+    private BookMapper mapper;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public BookExportServiceImpl(BookRepository repository, BookMapper mapper, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long count = 0;
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<Book> books = repository.streamAll()) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, book);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(mapper.toDto(book)));
+                }
+                writer.write('\n');
+                entityManager.detach(book);
+                count++;
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsv(Writer writer, Book book) throws IOException {
+        writer.write(String.valueOf(book.getId()));
+        writer.write(',');
+        writer.write(csv(book.getTitle()));
+        writer.write(',');
+        writer.write(csv(book.getAuthor()));
+        writer.write(',');
+        writer.write(csv(book.getIsbn()));
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
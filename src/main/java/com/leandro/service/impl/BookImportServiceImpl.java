@@ -0,0 +1,154 @@
+package com.leandro.service.impl;
+
+import com.leandro.api.dto.BookDTO;
+import com.leandro.api.dto.BookImportErrorDTO;
+import com.leandro.api.dto.BookImportResultDTO;
+import com.leandro.api.exceptions.BussinesException;
+import com.leandro.api.mapper.BookMapper;
+import com.leandro.model.entity.Book;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.service.BookImportService;
+import com.leandro.service.BookService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class BookImportServiceImpl implements BookImportService {
+
+    private static final String DUPLICATED_ISBN = "Isbn já cadastrado.";
+
+    private BookService bookService;
+    private BookRepository repository;
+    private Validator validator;
+    private BookMapper mapper;
+    private int chunkSize;
+
+    @Autowired
+    public BookImportServiceImpl(BookService bookService, BookRepository repository, Validator validator, BookMapper mapper,
+                                 @Value("${application.books.import.chunk-size:500}") int chunkSize) {
+        this.bookService = bookService;
+        this.repository = repository;
+        this.validator = validator;
+        this.mapper = mapper;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BookImportResultDTO importBooks(Iterator<BookDTO> books) {
+        BookImportResultDTO result = BookImportResultDTO.builder().build();
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        while (true) {
+            BookDTO dto;
+            try {
+                if (!books.hasNext()) {
+                    break;
+                }
+                dto = books.next();
+            } catch (RuntimeException e) {
+                log.warn("Importação interrompida no item {}: {}", index, e.getMessage());
+                reject(result, new Item(index, null), Collections.singletonList("Invalid item: " + e.getMessage()));
+                break;
+            }
+
+            chunk.add(new Item(index++, dto));
+            if (chunk.size() >= chunkSize) {
+                importChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+        return result;
+    }
+
+    private void importChunk(List<Item> chunk, BookImportResultDTO result) {
+        List<Item> valid = new ArrayList<>(chunk.size());
+        Set<String> isbns = new HashSet<>();
+
+        for (Item item : chunk) {
+            Set<ConstraintViolation<BookDTO>> violations = validator.validate(item.dto);
+            if (!violations.isEmpty()) {
+                reject(result, item, violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.toList()));
+            } else if (!isbns.add(item.dto.getIsbn())) {
+                reject(result, item, Collections.singletonList(DUPLICATED_ISBN));
+            } else {
+                valid.add(item);
+            }
+        }
+
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = new HashSet<>(repository.findExistingIsbns(isbns));
+        List<Item> toInsert = new ArrayList<>(valid.size());
+        for (Item item : valid) {
+            if (existing.contains(item.dto.getIsbn())) {
+                reject(result, item, Collections.singletonList(DUPLICATED_ISBN));
+            } else {
+                toInsert.add(item);
+            }
+        }
+
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        try {
+            bookService.saveAll(toInsert.stream().map(this::toEntity).collect(Collectors.toList()));
+            result.setImported(result.getImported() + toInsert.size());
+        } catch (DataIntegrityViolationException e) {
+            // another request inserted one of the isbns after the lookup; fall back to one insert per item
+            toInsert.forEach(item -> importOne(item, result));
+        }
+    }
+
+    private void importOne(Item item, BookImportResultDTO result) {
+        try {
+            bookService.save(toEntity(item));
+            result.setImported(result.getImported() + 1);
+        } catch (BussinesException e) {
+            reject(result, item, Collections.singletonList(e.getMessage()));
+        }
+    }
+
+    private Book toEntity(Item item) {
+        Book book = mapper.toEntity(item.dto);
+        book.setId(null);
+        return book;
+    }
+
+    private void reject(BookImportResultDTO result, Item item, List<String> errors) {
+        result.setFailed(result.getFailed() + 1);
+        result.getErrors().add(BookImportErrorDTO.builder()
+                .index(item.index)
+                .isbn(item.dto == null ? null : item.dto.getIsbn())
+                .errors(errors)
+                .build());
+    }
+
+    @AllArgsConstructor
+    private static class Item {
+        private final int index;
+        private final BookDTO dto;
+    }
+}
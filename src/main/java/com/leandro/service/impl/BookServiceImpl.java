@@ -1,34 +1,74 @@
 package com.leandro.service.impl;
 
+import com.leandro.api.dto.BookDTO;
 import com.leandro.api.exceptions.BussinesException;
 import com.leandro.model.entity.Book;
 import com.leandro.model.repository.BookRepository;
 import com.leandro.service.BookService;
+import com.leandro.service.support.BookSearchIndex;
+import com.leandro.service.support.IsbnCache;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    private static final String ISBN_CONSTRAINT = "uk_book_isbn";
+
     private BookRepository repository;
+    private IsbnCache isbnCache;
+    private BookSearchIndex searchIndex;
 
     @Autowired
-    public BookServiceImpl(BookRepository repository) {
+    public BookServiceImpl(BookRepository repository, IsbnCache isbnCache, BookSearchIndex searchIndex) {
         this.repository = repository;
+        this.isbnCache = isbnCache;
+        this.searchIndex = searchIndex;
     }
 
     @Override
+    @Transactional
     public Book save(Book book) {
-        if(repository.existsByIsbn(book.getIsbn())){
-            throw new BussinesException("Isbn já cadastrado.");
+        Book savedBook;
+        try {
+            savedBook = repository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException e) {
+            if (isIsbnViolation(e)) {
+                throw new BussinesException("Isbn já cadastrado.");
+            }
+            throw e;
         }
-        return repository.save(book);
+        searchIndex.add(Collections.singletonList(savedBook));
+        afterCommit(() -> isbnCache.put(savedBook));
+        return savedBook;
+    }
+
+    @Override
+    @Transactional
+    public List<Book> saveAll(List<Book> books) {
+        List<Book> savedBooks = repository.saveAll(books);
+        repository.flush();
+        searchIndex.add(savedBooks);
+        return savedBooks;
     }
 
     @Override
@@ -37,34 +77,117 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    public Optional<Long> getVersion(Long id) {
+        return repository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BookDTO> getDetails(Long id) {
+        return repository.findSummaryById(id).map(BookDTO::from);
+    }
+
+    @Override
+    public boolean exists(Long id) {
+        return repository.existsById(id);
+    }
+
+    @Override
+    @Transactional
     public void delete(Book book) {
         if(book == null || book.getId() == null){
             throw new IllegalArgumentException("Book id cant be null.");
         }
+        searchIndex.remove(book.getId());
         repository.delete(book);
+        evictIsbn(book.getIsbn());
     }
 
     @Override
+    @Transactional
     public Book update(Book book) {
         if(book == null || book.getId() == null){
             throw new IllegalArgumentException("Book id cant be null.");
         }
-        return repository.save(book);
+        Book updatedBook = repository.save(book);
+        searchIndex.index(updatedBook);
+        evictIsbn(book.getIsbn());
+        return updatedBook;
     }
 
     @Override
     public Page<Book> find(Book filter, Pageable pageRequest) {
+        return repository.findAll(exampleOf(filter), pageRequest);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookDTO> findDtos(Book filter, Pageable pageRequest) {
+        return repository.findSummaries(exampleOf(filter), pageRequest).map(BookDTO::from);
+    }
+
+    @Override
+    public Slice<Book> findSlice(Book filter, Pageable pageRequest) {
+        return repository.findSlice(exampleOf(filter), pageRequest);
+    }
+
+    @Override
+    public List<Book> findAfter(Book filter, Long lastId, int limit) {
+        return repository.findAllAfter(exampleOf(filter), lastId, limit);
+    }
+
+    @Override
+    public Page<Book> search(String query, Pageable pageable) {
+        Page<Long> ids = searchIndex.search(query, pageable);
+        Map<Long, Book> books = repository.findAllById(ids.getContent())
+                .stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<Book> ranked = ids.getContent()
+                .stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(ranked, pageable, ids.getTotalElements());
+    }
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        return isbnCache.get(isbn, repository::findByIsbn);
+    }
+
+    private void evictIsbn(String isbn) {
+        isbnCache.evict(isbn);
+        afterCommit(() -> isbnCache.evict(isbn));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static boolean isIsbnViolation(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        String constraint = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraint != null && constraint.toLowerCase().contains(ISBN_CONSTRAINT);
+    }
+
+    private Example<Book> exampleOf(Book filter) {
         ExampleMatcher matching = ExampleMatcher
                 .matching()
                 .withIgnoreCase()
                 .withIgnoreNullValues()
                 .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING);
 
-        return repository.findAll(Example.of(filter, matching), pageRequest);
-    }
-
-    @Override
-    public Optional<Book> findByIsbn(String isbn) {
-        return repository.findByIsbn(isbn);
+        return Example.of(filter, matching);
     }
 }
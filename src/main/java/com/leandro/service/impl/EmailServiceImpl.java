@@ -1,32 +1,42 @@
 package com.leandro.service.impl;
 
+import com.leandro.model.entity.EmailOutbox;
+import com.leandro.model.entity.EmailOutboxStatus;
+import com.leandro.model.repository.EmailOutboxRepository;
 import com.leandro.service.EmailService;
+import com.leandro.service.support.RenderedMail;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class EmailServiceImpl implements EmailService {
 
-    @Value("${application.mail.default-remetent}")
-    private String remetent;
-
-    private final JavaMailSender javaMailSender;
+    private final EmailOutboxRepository outboxRepository;
 
     @Override
-    public void sendMails(String message, List<String> emailList) {
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setFrom(remetent);
-        mailMessage.setSubject("Livro com empréstimo atrasado");
-        mailMessage.setText(message);
-        String[] emails = emailList.toArray(new String[emailList.size()]);
-        mailMessage.setTo(emails);
-        javaMailSender.send(mailMessage);
+    @Transactional
+    public void sendMails(List<RenderedMail> mails) {
+        if (mails.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.saveAll(mails.stream()
+                .filter(mail -> mail.getRecipient() != null)
+                .map(mail -> EmailOutbox.builder()
+                        .subject(mail.getSubject())
+                        .body(mail.getBody())
+                        .recipient(mail.getRecipient())
+                        .status(EmailOutboxStatus.PENDING)
+                        .nextAttemptAt(now)
+                        .createdAt(now)
+                        .build())
+                .collect(Collectors.toList()));
     }
 }
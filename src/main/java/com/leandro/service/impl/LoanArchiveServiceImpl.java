@@ -0,0 +1,157 @@
+package com.leandro.service.impl;
+
+import com.leandro.api.dto.LoanArchiveStatsDTO;
+import com.leandro.api.dto.LoanDTO;
+import com.leandro.model.projection.LoanSummary;
+import com.leandro.model.repository.LoanArchiveRepository;
+import com.leandro.model.repository.LoanCustomerGramRepository;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.LoanArchiveService;
+import com.leandro.service.support.JobLeases;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class LoanArchiveServiceImpl implements LoanArchiveService {
+
+    private LoanRepository loanRepository;
+    private LoanArchiveRepository archiveRepository;
+    private LoanCustomerGramRepository gramRepository;
+    private TransactionTemplate transactionTemplate;
+    private JobLeases jobLeases;
+    private int archiveAfterDays;
+    private int batchSize;
+    private int maxBatches;
+    private long pauseMillis;
+
+    private final AtomicLong archivedSinceStartup = new AtomicLong();
+    private volatile long lastPassRows;
+    private volatile long lastPassBatches;
+    private volatile long lastPassMillis;
+    private volatile LocalDateTime lastPassAt;
+
+    @Autowired
+    public LoanArchiveServiceImpl(LoanRepository loanRepository, LoanArchiveRepository archiveRepository,
+                                  LoanCustomerGramRepository gramRepository, TransactionTemplate transactionTemplate,
+                                  JobLeases jobLeases,
+                                  @Value("${application.loans.archive.after-days:90}") int archiveAfterDays,
+                                  @Value("${application.loans.archive.batch-size:500}") int batchSize,
+                                  @Value("${application.loans.archive.max-batches:100}") int maxBatches,
+                                  @Value("${application.loans.archive.pause-ms:200}") long pauseMillis) {
+        this.loanRepository = loanRepository;
+        this.archiveRepository = archiveRepository;
+        this.gramRepository = gramRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLeases = jobLeases;
+        this.archiveAfterDays = archiveAfterDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${application.loans.archive.interval-ms:600000}",
+            initialDelayString = "${application.loans.archive.interval-ms:600000}")
+    public void scheduledArchive() {
+        jobLeases.runExclusive("loan-archive", this::archive);
+    }
+
+    @Override
+    public synchronized int archive() {
+        LocalDate cutoff = LocalDate.now().minusDays(archiveAfterDays);
+        long start = System.nanoTime();
+        int archived = 0;
+        int batches = 0;
+        while (batches < maxBatches) {
+            int moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            batches++;
+            archived += moved;
+            if (moved < batchSize || !pause()) {
+                break;
+            }
+        }
+
+        lastPassMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lastPassRows = archived;
+        lastPassBatches = batches;
+        lastPassAt = LocalDateTime.now();
+        archivedSinceStartup.addAndGet(archived);
+        if (archived > 0) {
+            log.info("{} empréstimos arquivados em {} lotes ({} ms).", archived, batches, lastPassMillis);
+        }
+        return archived;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<LoanDTO> findHistoryByBook(Long bookId, Pageable pageable) {
+        Sort.Order order = pageable.getSort().getOrderFor("id");
+        Sort.Direction direction = order == null ? Sort.Direction.ASC : order.getDirection();
+        PageRequest head = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), Sort.by(direction, "id"));
+
+        Page<LoanSummary> active = loanRepository.findSummariesByBookId(bookId, head);
+        Page<LoanSummary> archived = archiveRepository.findSummariesByBookId(bookId, head);
+
+        Comparator<LoanSummary> byId = Comparator.comparing(LoanSummary::getId);
+        List<LoanDTO> content = Stream.concat(active.stream(), archived.stream())
+                .sorted(direction.isAscending() ? byId : byId.reversed())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(LoanDTO::from)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, active.getTotalElements() + archived.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LoanArchiveStatsDTO getStats() {
+        return new LoanArchiveStatsDTO(archiveRepository.count(), archivedSinceStartup.get(),
+                lastPassRows, lastPassBatches, lastPassMillis, lastPassAt);
+    }
+
+    private int archiveBatch(LocalDate cutoff) {
+        List<Long> ids = loanRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int copied = archiveRepository.copyFromLoans(ids);
+        gramRepository.deleteByLoanIds(ids);
+        int deleted = loanRepository.deleteReturned(ids);
+        if (copied != deleted) {
+            throw new IllegalStateException("Archived " + copied + " loans but removed " + deleted + ".");
+        }
+        return deleted;
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.leandro.service.impl;
+
+import com.leandro.api.dto.LoanReturnResultDTO;
+import com.leandro.api.dto.LoanReturnStatus;
+import com.leandro.model.projection.BookActiveLoan;
+import com.leandro.model.projection.LoanReturnState;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.LoanReturnService;
+import com.leandro.service.event.LoanReturnedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class LoanReturnServiceImpl implements LoanReturnService {
+
+    private LoanRepository loanRepository;
+    private BookRepository bookRepository;
+    private TransactionTemplate transactionTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private int chunkSize;
+
+    @Autowired
+    public LoanReturnServiceImpl(LoanRepository loanRepository, BookRepository bookRepository,
+                                 TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                                 @Value("${application.loans.return.chunk-size:500}") int chunkSize) {
+        this.loanRepository = loanRepository;
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public List<LoanReturnResultDTO> returnLoans(Collection<Long> ids, Collection<String> isbns) {
+        List<LoanReturnResultDTO> results = new ArrayList<>();
+        if (ids != null) {
+            for (List<Long> chunk : chunks(ids)) {
+                results.addAll(transactionTemplate.execute(status -> returnByIds(chunk)));
+            }
+        }
+        if (isbns != null) {
+            for (List<String> chunk : chunks(isbns)) {
+                results.addAll(transactionTemplate.execute(status -> returnByIsbns(chunk)));
+            }
+        }
+        return results;
+    }
+
+    private List<LoanReturnResultDTO> returnByIds(List<Long> ids) {
+        Map<Long, LoanReturnState> states = loanRepository.findReturnStates(ids)
+                .stream()
+                .collect(Collectors.toMap(LoanReturnState::getId, Function.identity()));
+
+        Map<Long, LoanReturnedEvent> toReturn = new LinkedHashMap<>();
+        List<LoanReturnResultDTO> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            LoanReturnState state = states.get(id);
+            LoanReturnStatus status;
+            if (state == null) {
+                status = LoanReturnStatus.NOT_FOUND;
+            } else if (Boolean.TRUE.equals(state.getReturned())) {
+                status = LoanReturnStatus.ALREADY_RETURNED;
+            } else {
+                status = LoanReturnStatus.RETURNED;
+                toReturn.put(id, new LoanReturnedEvent(id, state.getBookId(), state.getCustomerEmail()));
+            }
+            results.add(new LoanReturnResultDTO(id, null, status));
+        }
+        Set<Long> returned = markReturned(toReturn);
+        results.forEach(result -> alreadyReturnedUnless(result, returned));
+        return results;
+    }
+
+    private List<LoanReturnResultDTO> returnByIsbns(List<String> isbns) {
+        Map<String, BookActiveLoan> books = bookRepository.findActiveLoansByIsbnIn(isbns)
+                .stream()
+                .collect(Collectors.toMap(BookActiveLoan::getIsbn, Function.identity()));
+
+        Map<Long, LoanReturnedEvent> toReturn = new LinkedHashMap<>();
+        List<LoanReturnResultDTO> results = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            BookActiveLoan book = books.get(isbn);
+            if (book == null) {
+                results.add(new LoanReturnResultDTO(null, isbn, LoanReturnStatus.NOT_FOUND));
+            } else if (book.getActiveLoanId() == null) {
+                results.add(new LoanReturnResultDTO(null, isbn, LoanReturnStatus.ALREADY_RETURNED));
+            } else {
+                results.add(new LoanReturnResultDTO(book.getActiveLoanId(), isbn, LoanReturnStatus.RETURNED));
+                toReturn.put(book.getActiveLoanId(), new LoanReturnedEvent(book.getActiveLoanId(), book.getId(), book.getCustomerEmail()));
+            }
+        }
+        Set<Long> returned = markReturned(toReturn);
+        results.forEach(result -> alreadyReturnedUnless(result, returned));
+        return results;
+    }
+
+    private Set<Long> markReturned(Map<Long, LoanReturnedEvent> eventsByLoanId) {
+        if (eventsByLoanId.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<Long> open = new LinkedHashSet<>(loanRepository.lockOpenLoanIds(eventsByLoanId.keySet()));
+        if (open.size() != eventsByLoanId.size()) {
+            log.warn("{} de {} empréstimos já haviam sido devolvidos por outra requisição.",
+                    eventsByLoanId.size() - open.size(), eventsByLoanId.size());
+        }
+        if (open.isEmpty()) {
+            return open;
+        }
+        loanRepository.markReturned(open);
+        bookRepository.releaseLoans(open);
+        open.forEach(id -> {
+            LoanReturnedEvent event = eventsByLoanId.get(id);
+            if (event.getBookId() != null) {
+                eventPublisher.publishEvent(event);
+            }
+        });
+        return open;
+    }
+
+    private void alreadyReturnedUnless(LoanReturnResultDTO result, Set<Long> returned) {
+        if (result.getStatus() == LoanReturnStatus.RETURNED && !returned.contains(result.getId())) {
+            result.setStatus(LoanReturnStatus.ALREADY_RETURNED);
+        }
+    }
+
+    private <T> List<List<T>> chunks(Collection<T> values) {
+        Set<T> unique = new LinkedHashSet<>(values);
+        unique.remove(null);
+        List<T> distinct = new ArrayList<>(unique);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += chunkSize) {
+            chunks.add(distinct.subList(i, Math.min(i + chunkSize, distinct.size())));
+        }
+        return chunks;
+    }
+}
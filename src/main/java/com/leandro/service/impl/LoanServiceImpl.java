@@ -1,38 +1,94 @@
 package com.leandro.service.impl;
 
+import com.leandro.api.dto.LoanDTO;
 import com.leandro.api.dto.LoanFilterDTO;
 import com.leandro.api.exceptions.BussinesException;
 import com.leandro.model.entity.Book;
 import com.leandro.model.entity.Loan;
+import com.leandro.model.projection.LateLoanProjection;
+import com.leandro.model.repository.BookRepository;
 import com.leandro.model.repository.LoanRepository;
 import com.leandro.service.LoanService;
+import com.leandro.service.event.LoanCreatedEvent;
+import com.leandro.service.event.LoanReturnedEvent;
+import com.leandro.service.support.CustomerGrams;
+import com.leandro.service.support.LoanCustomerIndex;
+import com.leandro.service.support.StripedLock;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class LoanServiceImpl implements LoanService {
 
     private LoanRepository repository;
+    private BookRepository bookRepository;
+    private LoanCustomerIndex customerIndex;
+    private StripedLock bookLocks;
+    private TransactionTemplate transactionTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private int loanPeriodDays;
+    private int lateScanChunkSize;
+    private int reminderCadenceDays;
+    private int maxReminders;
 
     @Autowired
-    public LoanServiceImpl(LoanRepository repository) {
+    public LoanServiceImpl(LoanRepository repository, BookRepository bookRepository, LoanCustomerIndex customerIndex, StripedLock bookLocks,
+                           TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                           @Value("${application.loans.period-days:4}") int loanPeriodDays,
+                           @Value("${application.loans.late-scan.chunk-size:1000}") int lateScanChunkSize,
+                           @Value("${application.loans.reminder.cadence-days:3}") int reminderCadenceDays,
+                           @Value("${application.loans.reminder.max:5}") int maxReminders) {
         this.repository = repository;
+        this.bookRepository = bookRepository;
+        this.customerIndex = customerIndex;
+        this.bookLocks = bookLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.loanPeriodDays = loanPeriodDays;
+        this.lateScanChunkSize = lateScanChunkSize;
+        this.reminderCadenceDays = reminderCadenceDays;
+        this.maxReminders = maxReminders;
     }
 
     @Override
     public Loan save(Loan loan) {
-        if (repository.existsByBookAndNotReturned(loan.getBook())) {
-            throw new BussinesException("Book already loaned");
-        }
-        return repository.save(loan);
+        Long bookId = loan.getBook().getId();
+        return bookLocks.withLock(bookId, () -> transactionTemplate.execute(status -> {
+            if (bookRepository.existsByIdAndActiveLoanIdIsNotNull(bookId)) {
+                throw new BussinesException("Book already loaned");
+            }
+            if (loan.getDueDate() == null) {
+                loan.setDueDate(LocalDate.now().plusDays(loanPeriodDays));
+            }
+            if (loan.getNextNotificationDate() == null) {
+                loan.setNextNotificationDate(loan.getDueDate().plusDays(1));
+            }
+            Loan savedLoan = repository.save(loan);
+            if (bookRepository.markLoaned(bookId, savedLoan.getId()) == 0) {
+                throw new BussinesException("Book already loaned");
+            }
+            customerIndex.index(savedLoan.getId(), savedLoan.getCustomer());
+            eventPublisher.publishEvent(new LoanCreatedEvent(savedLoan.getId(), bookId, savedLoan.getCustomerEmail(), savedLoan.getDueDate()));
+            return savedLoan;
+        }));
     }
 
     @Override
@@ -41,22 +97,41 @@ public class LoanServiceImpl implements LoanService {
     }
 
     @Override
+    public Optional<Long> getVersion(Long id) {
+        return repository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional
     public Loan update(Loan loan) {
-        return repository.save(loan);
+        Loan updatedLoan = repository.save(loan);
+        if (Boolean.TRUE.equals(updatedLoan.getReturned()) && updatedLoan.getBook() != null) {
+            if (bookRepository.releaseLoan(updatedLoan.getBook().getId(), updatedLoan.getId()) > 0) {
+                eventPublisher.publishEvent(new LoanReturnedEvent(updatedLoan.getId(), updatedLoan.getBook().getId(), updatedLoan.getCustomerEmail()));
+            }
+        }
+        return updatedLoan;
     }
 
     @Override
     public Page<Loan> find(LoanFilterDTO filter, Pageable pageable) {
-        Loan loan = Loan.builder()
-                .book(Book.builder().isbn(filter.getIsbn()).build())
-                .customer(filter.getCustomer()).build();
+        return repository.findAll(exampleOf(filter), pageable);
+    }
 
-        ExampleMatcher matching = ExampleMatcher.matching()
-                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
-                .withIgnoreNullValues()
-                .withIgnoreCase();
+    @Override
+    @Transactional(readOnly = true)
+    public Page<LoanDTO> findDtos(LoanFilterDTO filter, Pageable pageable) {
+        return repository.findSummaries(exampleOf(filter), CustomerGrams.of(filter.getCustomer()), pageable).map(LoanDTO::from);
+    }
+
+    @Override
+    public Slice<Loan> findSlice(LoanFilterDTO filter, Pageable pageable) {
+        return repository.findSlice(exampleOf(filter), CustomerGrams.of(filter.getCustomer()), pageable);
+    }
 
-        return repository.findAll(Example.of(loan, matching), pageable);
+    @Override
+    public List<Loan> findAfter(LoanFilterDTO filter, Long lastId, int limit) {
+        return repository.findAllAfter(exampleOf(filter), CustomerGrams.of(filter.getCustomer()), lastId, limit);
     }
 
     @Override
@@ -65,7 +140,71 @@ public class LoanServiceImpl implements LoanService {
     }
 
     @Override
-    public List<Loan> getAllLateLoans() {
-        return repository.findAllByLoanDateBeforeAndReturnedIsFalse(LocalDate.now().minusDays(4));
+    @Transactional(readOnly = true)
+    public Page<LoanDTO> findLoanDtosByBook(Long bookId, Pageable pageable) {
+        return repository.findSummariesByBookId(bookId, pageable).map(LoanDTO::from);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<LoanDTO> findLoanDtosByCustomer(String customerEmail, Pageable pageable) {
+        return repository.findSummariesByCustomerEmail(customerEmail, pageable).map(LoanDTO::from);
+    }
+
+    @Override
+    public Slice<Loan> findLoanSliceByBook(Book book, Pageable pageable) {
+        return repository.findSliceByBook(book, pageable);
+    }
+
+    @Override
+    public List<LateLoanProjection> findLateLoans(Collection<Long> ids) {
+        return repository.findLateLoansByIds(ids, LocalDate.now());
+    }
+
+    @Override
+    public void scanLateLoans(Consumer<List<LateLoanProjection>> consumer) {
+        LocalDate today = LocalDate.now();
+        LocalDate lastDate = LocalDate.of(1970, 1, 1);
+        Long lastId = 0L;
+        while (true) {
+            List<LateLoanProjection> chunk = repository.findDueReminders(today, lastDate, lastId, PageRequest.of(0, lateScanChunkSize));
+            if (chunk.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                consumer.accept(chunk);
+                markNotified(chunk.stream().map(LateLoanProjection::getId).collect(Collectors.toList()));
+            });
+            if (chunk.size() < lateScanChunkSize) {
+                return;
+            }
+            LateLoanProjection last = chunk.get(chunk.size() - 1);
+            lastDate = last.getNextNotificationDate();
+            lastId = last.getId();
+        }
+    }
+
+    @Override
+    public void markNotified(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        transactionTemplate.execute(status -> {
+            repository.markNotified(ids, LocalDateTime.now(), LocalDate.now().plusDays(reminderCadenceDays));
+            return repository.stopReminders(ids, maxReminders);
+        });
+    }
+
+    private Example<Loan> exampleOf(LoanFilterDTO filter) {
+        Loan loan = Loan.builder()
+                .book(Book.builder().isbn(filter.getIsbn()).build())
+                .customer(filter.getCustomer()).build();
+
+        ExampleMatcher matching = ExampleMatcher.matching()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                .withIgnoreNullValues()
+                .withIgnoreCase();
+
+        return Example.of(loan, matching);
     }
 }
@@ -0,0 +1,117 @@
+package com.leandro.service.impl;
+
+import com.leandro.api.dto.BookLoanStatsDTO;
+import com.leandro.api.dto.CustomerLoanStatsDTO;
+import com.leandro.api.dto.LoanStatsDTO;
+import com.leandro.model.projection.LoanCounts;
+import com.leandro.model.repository.BookLoanStatsRepository;
+import com.leandro.model.repository.CustomerLoanStatsRepository;
+import com.leandro.model.repository.LoanTotalsRepository;
+import com.leandro.service.LoanStatsService;
+import com.leandro.service.event.LoanCreatedEvent;
+import com.leandro.service.event.LoanReturnedEvent;
+import com.leandro.service.support.MostBorrowedBooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.IntSupplier;
+
+@Service
+public class LoanStatsServiceImpl implements LoanStatsService {
+
+    private BookLoanStatsRepository bookStatsRepository;
+    private CustomerLoanStatsRepository customerStatsRepository;
+    private LoanTotalsRepository totalsRepository;
+    private MostBorrowedBooks mostBorrowedBooks;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate newTransaction;
+    private int slots;
+
+    @Autowired
+    public LoanStatsServiceImpl(BookLoanStatsRepository bookStatsRepository, CustomerLoanStatsRepository customerStatsRepository,
+                                LoanTotalsRepository totalsRepository, MostBorrowedBooks mostBorrowedBooks,
+                                JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                @Value("${application.loans.stats.slots:16}") int slots) {
+        this.bookStatsRepository = bookStatsRepository;
+        this.customerStatsRepository = customerStatsRepository;
+        this.totalsRepository = totalsRepository;
+        this.mostBorrowedBooks = mostBorrowedBooks;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.slots = slots;
+    }
+
+    @EventListener
+    public void onLoanCreated(LoanCreatedEvent event) {
+        Long bookId = event.getBookId();
+        upsert(() -> bookStatsRepository.incrementLoans(bookId),
+                "insert into book_loan_stats (book_id, loans, open_loans) values (?, 0, 0)", bookId);
+        String email = event.getCustomerEmail();
+        if (email != null) {
+            upsert(() -> customerStatsRepository.incrementLoans(email),
+                    "insert into customer_loan_stats (customer_email, loans, open_loans) values (?, 0, 0)", email);
+        }
+        Integer slot = slotOf(event.getLoanId());
+        upsert(() -> totalsRepository.incrementLoans(slot),
+                "insert into loan_totals (slot, loans, open_loans) values (?, 0, 0)", slot);
+    }
+
+    @EventListener
+    public void onLoanReturned(LoanReturnedEvent event) {
+        bookStatsRepository.decrementOpenLoans(event.getBookId());
+        if (event.getCustomerEmail() != null) {
+            customerStatsRepository.decrementOpenLoans(event.getCustomerEmail());
+        }
+        Integer slot = slotOf(event.getLoanId());
+        upsert(() -> totalsRepository.decrementOpenLoans(slot),
+                "insert into loan_totals (slot, loans, open_loans) values (?, 0, 0)", slot);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LoanStatsDTO getStats() {
+        LoanCounts counts = totalsRepository.sum();
+        return new LoanStatsDTO(counts.getLoans(), counts.getOpenLoans(), mostBorrowedBooks.top());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookLoanStatsDTO getBookStats(Long bookId) {
+        return bookStatsRepository.findById(bookId)
+                .map(stats -> new BookLoanStatsDTO(stats.getBookId(), stats.getLoans(), stats.getOpenLoans()))
+                .orElseGet(() -> new BookLoanStatsDTO(bookId, 0, 0));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerLoanStatsDTO getCustomerStats(String customerEmail) {
+        return customerStatsRepository.findById(customerEmail)
+                .map(stats -> new CustomerLoanStatsDTO(stats.getCustomerEmail(), stats.getLoans(), stats.getOpenLoans()))
+                .orElseGet(() -> new CustomerLoanStatsDTO(customerEmail, 0, 0));
+    }
+
+    private void upsert(IntSupplier update, String insertSql, Object key) {
+        if (update.getAsInt() > 0) {
+            return;
+        }
+        try {
+            newTransaction.executeWithoutResult(status -> jdbcTemplate.update(insertSql, key));
+        } catch (DuplicateKeyException e) {
+            // another loan created the row first; the update below applies on top of it
+        }
+        update.getAsInt();
+    }
+
+    private Integer slotOf(Long loanId) {
+        return (int) Math.floorMod(loanId, (long) slots);
+    }
+}
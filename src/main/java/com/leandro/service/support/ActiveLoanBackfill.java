@@ -0,0 +1,41 @@
+package com.leandro.service.support;
+
+import com.leandro.model.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Slf4j
+@Component
+public class ActiveLoanBackfill {
+
+    private static final Duration LEASE = Duration.ofMinutes(30);
+
+    private BookRepository bookRepository;
+    private JobLeases jobLeases;
+    private boolean enabled;
+
+    @Autowired
+    public ActiveLoanBackfill(BookRepository bookRepository, JobLeases jobLeases,
+                              @Value("${application.loans.active-loan.backfill-on-startup:false}") boolean enabled) {
+        this.bookRepository = bookRepository;
+        this.jobLeases = jobLeases;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        jobLeases.runExclusive("active-loan-backfill", LEASE, Duration.ZERO, () -> {
+            int updated = bookRepository.fillMissingActiveLoans();
+            log.info("Empréstimo ativo recalculado para {} livros.", updated);
+        });
+    }
+}
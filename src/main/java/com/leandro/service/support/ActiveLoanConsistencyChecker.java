@@ -0,0 +1,39 @@
+package com.leandro.service.support;
+
+import com.leandro.model.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+public class ActiveLoanConsistencyChecker {
+
+    private BookRepository bookRepository;
+    private JobLeases jobLeases;
+
+    @Autowired
+    public ActiveLoanConsistencyChecker(BookRepository bookRepository, JobLeases jobLeases) {
+        this.bookRepository = bookRepository;
+        this.jobLeases = jobLeases;
+    }
+
+    @Scheduled(cron = "${application.loans.active-loan.check-cron:0 30 3 * * *}")
+    public void scheduledCheck() {
+        jobLeases.runExclusive("active-loan-check", this::check);
+    }
+
+    public List<Long> check() {
+        List<Long> inconsistent = bookRepository.findInconsistentActiveLoans();
+        if (inconsistent.isEmpty()) {
+            log.info("Empréstimos ativos consistentes.");
+            return inconsistent;
+        }
+        log.warn("{} livros com empréstimo ativo inconsistente: {}", inconsistent.size(), inconsistent);
+        bookRepository.backfillActiveLoans(inconsistent);
+        return inconsistent;
+    }
+}
@@ -0,0 +1,97 @@
+package com.leandro.service.support;
+
+import com.leandro.model.entity.Book;
+import com.leandro.model.entity.BookToken;
+import com.leandro.model.entity.BookTokenId;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.model.repository.BookTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class BookSearchIndex {
+
+    private static final int REBUILD_PAGE_SIZE = 500;
+    private static final Duration LEASE = Duration.ofMinutes(30);
+
+    private BookTokenRepository tokenRepository;
+    private BookRepository bookRepository;
+    private JobLeases jobLeases;
+
+    @Autowired
+    public BookSearchIndex(BookTokenRepository tokenRepository, BookRepository bookRepository, JobLeases jobLeases) {
+        this.tokenRepository = tokenRepository;
+        this.bookRepository = bookRepository;
+        this.jobLeases = jobLeases;
+    }
+
+    public void add(Collection<Book> books) {
+        tokenRepository.saveAll(books.stream()
+                .flatMap(book -> tokensOf(book).stream())
+                .collect(Collectors.toList()));
+    }
+
+    public void index(Book book) {
+        tokenRepository.deleteByBookId(book.getId());
+        tokenRepository.saveAll(tokensOf(book));
+    }
+
+    public void remove(Long bookId) {
+        tokenRepository.deleteByBookId(bookId);
+    }
+
+    public Page<Long> search(String query, Pageable pageable) {
+        Set<String> tokens = BookTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+        return tokenRepository.searchBookIds(tokens, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexMissing() {
+        jobLeases.runExclusive("book-search-index", LEASE, Duration.ZERO, this::indexUnindexedBooks);
+    }
+
+    private void indexUnindexedBooks() {
+        if (bookRepository.count() == 0) {
+            return;
+        }
+        Long lastId = 0L;
+        int indexed = 0;
+        while (true) {
+            List<Book> page = bookRepository.findUnindexed(lastId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            add(page);
+            indexed += page.size();
+            if (page.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+        if (indexed > 0) {
+            log.info("Índice de busca de livros atualizado para {} livros.", indexed);
+        }
+    }
+
+    private List<BookToken> tokensOf(Book book) {
+        return BookTokenizer.tokenize(book.getTitle(), book.getAuthor())
+                .stream()
+                .map(token -> new BookToken(new BookTokenId(token, book.getId())))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,34 @@
+package com.leandro.service.support;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class BookTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 64;
+
+    private BookTokenizer() {
+    }
+
+    public static Set<String> tokenize(String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+            for (String token : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+                if (token.length() >= MIN_LENGTH) {
+                    tokens.add(token.length() > MAX_LENGTH ? token.substring(0, MAX_LENGTH) : token);
+                }
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,34 @@
+package com.leandro.service.support;
+
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class CustomerGrams {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private CustomerGrams() {
+    }
+
+    public static Set<String> of(String text) {
+        if (text == null) {
+            return Collections.emptySet();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        if (normalized.length() < GRAM_LENGTH) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,262 @@
+package com.leandro.service.support;
+
+import com.leandro.model.entity.EmailOutbox;
+import com.leandro.model.entity.EmailOutboxStatus;
+import com.leandro.model.repository.EmailOutboxRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository repository;
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final int capacity;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final long claimTimeoutMillis;
+    private final Duration retention;
+    private final Executor workers;
+    private final Clock clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong sendNanos = new AtomicLong();
+    private final long startedAt;
+
+    @Autowired
+    public EmailOutboxDispatcher(EmailOutboxRepository repository, JavaMailSender mailSender,
+                                 @Value("${application.mail.default-remetent}") String from,
+                                 @Value("${application.mail.outbox.workers:4}") int workers,
+                                 @Value("${application.mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${application.mail.outbox.max-attempts:5}") int maxAttempts,
+                                 @Value("${application.mail.outbox.backoff-ms:30000}") long backoffMillis,
+                                 @Value("${application.mail.outbox.max-backoff-ms:3600000}") long maxBackoffMillis,
+                                 @Value("${application.mail.outbox.claim-timeout-ms:600000}") long claimTimeoutMillis,
+                                 @Value("${application.mail.outbox.retention-days:7}") int retentionDays) {
+        this(repository, mailSender, from, workers * 2, batchSize, maxAttempts, backoffMillis, maxBackoffMillis, claimTimeoutMillis,
+                Duration.ofDays(retentionDays), Executors.newFixedThreadPool(workers, workerThreads()), Clock.systemDefaultZone());
+    }
+
+    public EmailOutboxDispatcher(EmailOutboxRepository repository, JavaMailSender mailSender, String from, int capacity,
+                                 int batchSize, int maxAttempts, long backoffMillis, long maxBackoffMillis,
+                                 long claimTimeoutMillis, Duration retention, Executor workers, Clock clock) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Outbox workers and batch size must be positive.");
+        }
+        this.repository = repository;
+        this.mailSender = mailSender;
+        this.from = from;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.claimTimeoutMillis = claimTimeoutMillis;
+        this.retention = retention;
+        this.workers = workers;
+        this.clock = clock;
+        this.startedAt = clock.millis();
+    }
+
+    @Scheduled(fixedDelayString = "${application.mail.outbox.poll-ms:1000}")
+    public void dispatch() {
+        int free = capacity - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Long> due = repository.findDueIds(now, PageRequest.of(0, free * batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        if (repository.claim(due, token, now) == 0) {
+            return;
+        }
+        List<EmailOutbox> claimed = repository.findByClaimToken(token);
+        for (int i = 0; i < claimed.size(); i += batchSize) {
+            List<EmailOutbox> batch = claimed.subList(i, Math.min(i + batchSize, claimed.size()));
+            inFlight.incrementAndGet();
+            try {
+                workers.execute(() -> {
+                    try {
+                        deliver(batch, token);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet();
+                log.warn("Não foi possível agendar o envio de {} emails: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.mail.outbox.claim-timeout-ms:600000}")
+    public void releaseStale() {
+        int released = repository.releaseStale(LocalDateTime.now(clock).minus(Duration.ofMillis(claimTimeoutMillis)));
+        if (released > 0) {
+            log.warn("{} emails presos em envio voltaram para a fila.", released);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.mail.outbox.purge-ms:3600000}")
+    public void purgeSent() {
+        int deleted = repository.deleteSentBefore(LocalDateTime.now(clock).minus(retention));
+        if (deleted > 0) {
+            log.info("{} emails enviados removidos da fila.", deleted);
+        }
+    }
+
+    public Stats stats() {
+        long sentCount = sent.get();
+        long elapsedMillis = Math.max(1, clock.millis() - startedAt);
+        return new Stats(repository.countByStatus(EmailOutboxStatus.PENDING), repository.countByStatus(EmailOutboxStatus.DEAD),
+                inFlight.get(), sentCount, retried.get(), deadLettered.get(),
+                sentCount == 0 ? 0 : sendNanos.get() / 1_000_000d / sentCount,
+                sentCount * 60_000d / elapsedMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (workers instanceof ExecutorService) {
+            ((ExecutorService) workers).shutdown();
+        }
+    }
+
+    private void deliver(List<EmailOutbox> batch, String token) {
+        SimpleMailMessage[] messages = batch.stream().map(this::messageOf).toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> failures = Collections.emptyMap();
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages().isEmpty() ? allFailed(messages, e) : e.getFailedMessages();
+        } catch (RuntimeException e) {
+            failures = allFailed(messages, e);
+        }
+        sendNanos.addAndGet(System.nanoTime() - start);
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Long> delivered = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Exception failure = failures.get(messages[i]);
+            if (failure == null) {
+                delivered.add(batch.get(i).getId());
+            } else {
+                fail(batch.get(i), token, failure, now);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            int marked = repository.markSent(delivered, token, now);
+            sent.addAndGet(marked);
+            if (marked < delivered.size()) {
+                log.warn("{} emails enviados já tinham sido devolvidos para a fila por outro nó.", delivered.size() - marked);
+            }
+        }
+    }
+
+    private static Map<Object, Exception> allFailed(SimpleMailMessage[] messages, Exception failure) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        for (SimpleMailMessage message : messages) {
+            failures.put(message, failure);
+        }
+        return failures;
+    }
+
+    private void fail(EmailOutbox email, String token, Exception failure, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        String error = errorOf(failure);
+        if (attempts >= maxAttempts) {
+            if (repository.markFailed(email.getId(), token, EmailOutboxStatus.DEAD, null, error) == 0) {
+                return;
+            }
+            deadLettered.incrementAndGet();
+            log.error("Email {} descartado após {} tentativas: {}", email.getId(), attempts, error);
+        } else {
+            LocalDateTime nextAttempt = now.plus(Duration.ofMillis(backoffOf(attempts)));
+            if (repository.markFailed(email.getId(), token, EmailOutboxStatus.PENDING, nextAttempt, error) == 0) {
+                return;
+            }
+            retried.incrementAndGet();
+            log.warn("Falha ao enviar o email {} (tentativa {}), nova tentativa em {}: {}", email.getId(), attempts, nextAttempt, error);
+        }
+    }
+
+    long backoffOf(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        long delay = backoffMillis << shift;
+        return delay < 0 || delay > maxBackoffMillis ? maxBackoffMillis : delay;
+    }
+
+    private SimpleMailMessage messageOf(EmailOutbox email) {
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        mailMessage.setFrom(from);
+        mailMessage.setSubject(email.getSubject());
+        mailMessage.setText(email.getBody());
+        mailMessage.setTo(email.getRecipient());
+        return mailMessage;
+    }
+
+    private static String errorOf(Exception e) {
+        String message = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private static ThreadFactory workerThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private final long pending;
+        private final long dead;
+        private final int inFlight;
+        private final long sent;
+        private final long retried;
+        private final long deadLettered;
+        private final double averageSendMillis;
+        private final double sentPerMinute;
+    }
+}
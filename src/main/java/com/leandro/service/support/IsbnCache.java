@@ -0,0 +1,170 @@
+package com.leandro.service.support;
+
+import com.leandro.model.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Component
+public class IsbnCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+    private final Map<String, Object> loads = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public IsbnCache(@Value("${application.cache.isbn.max-size:10000}") int maxSize,
+                     @Value("${application.cache.isbn.ttl-seconds:600}") long ttlSeconds) {
+        this(maxSize, ttlSeconds, Clock.systemUTC());
+    }
+
+    public IsbnCache(int maxSize, long ttlSeconds, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > IsbnCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<Book> get(String isbn, Function<String, Optional<Book>> loader) {
+        if (isbn == null) {
+            return loader.apply(null);
+        }
+        Object load = new Object();
+        synchronized (entries) {
+            Entry entry = entries.get(isbn);
+            if (entry != null && entry.expiresAt > clock.millis()) {
+                hits.incrementAndGet();
+                return Optional.of(entry.snapshot.toBook());
+            }
+            if (entry != null) {
+                entries.remove(isbn);
+                evictions.incrementAndGet();
+            }
+            loads.put(isbn, load);
+        }
+        misses.incrementAndGet();
+        Optional<Book> book;
+        try {
+            book = loader.apply(isbn);
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                loads.remove(isbn, load);
+            }
+            throw e;
+        }
+        synchronized (entries) {
+            if (loads.remove(isbn, load) && book.isPresent() && isbn.equals(book.get().getIsbn())) {
+                store(book.get());
+            }
+        }
+        return book;
+    }
+
+    public void put(Book book) {
+        if (book == null || book.getIsbn() == null) {
+            return;
+        }
+        synchronized (entries) {
+            loads.remove(book.getIsbn());
+            store(book);
+        }
+    }
+
+    public void evict(String isbn) {
+        if (isbn == null) {
+            return;
+        }
+        synchronized (entries) {
+            loads.remove(isbn);
+            if (entries.remove(isbn) != null) {
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            evictions.addAndGet(entries.size());
+            entries.clear();
+            loads.clear();
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(size, maxSize, hits.get(), misses.get(), evictions.get());
+    }
+
+    private void store(Book book) {
+        entries.put(book.getIsbn(), new Entry(new Snapshot(book), clock.millis() + ttlMillis));
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final Snapshot snapshot;
+        private final long expiresAt;
+    }
+
+    private static class Snapshot {
+        private final Long id;
+        private final String title;
+        private final String author;
+        private final String isbn;
+        private final Long version;
+        private final Long activeLoanId;
+
+        private Snapshot(Book book) {
+            this.id = book.getId();
+            this.title = book.getTitle();
+            this.author = book.getAuthor();
+            this.isbn = book.getIsbn();
+            this.version = book.getVersion();
+            this.activeLoanId = book.getActiveLoanId();
+        }
+
+        private Book toBook() {
+            return new Book(id, title, author, isbn, version, activeLoanId);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+    }
+}
@@ -0,0 +1,101 @@
+package com.leandro.service.support;
+
+import com.leandro.model.entity.JobLease;
+import com.leandro.model.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class JobLeases {
+
+    private final JobLeaseRepository repository;
+    private final TransactionTemplate newTransaction;
+    private final String owner;
+    private final Duration defaultLockAtMostFor;
+    private final Duration defaultLockAtLeastFor;
+    private final Clock clock;
+
+    @Autowired
+    public JobLeases(JobLeaseRepository repository, PlatformTransactionManager transactionManager,
+                     @Value("${application.jobs.node-id:}") String nodeId,
+                     @Value("${application.jobs.lock-at-most-ms:1800000}") long lockAtMostMillis,
+                     @Value("${application.jobs.lock-at-least-ms:30000}") long lockAtLeastMillis) {
+        this(repository, transactionManager, nodeId.isEmpty() ? defaultNodeId() : nodeId,
+                Duration.ofMillis(lockAtMostMillis), Duration.ofMillis(lockAtLeastMillis), Clock.systemDefaultZone());
+    }
+
+    public JobLeases(JobLeaseRepository repository, PlatformTransactionManager transactionManager, String owner,
+                     Duration defaultLockAtMostFor, Duration defaultLockAtLeastFor, Clock clock) {
+        this.repository = repository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = owner;
+        this.defaultLockAtMostFor = defaultLockAtMostFor;
+        this.defaultLockAtLeastFor = defaultLockAtLeastFor;
+        this.clock = clock;
+    }
+
+    public boolean runExclusive(String job, Runnable task) {
+        return runExclusive(job, defaultLockAtMostFor, defaultLockAtLeastFor, task);
+    }
+
+    public boolean runExclusive(String job, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable task) {
+        LocalDateTime lockedAt = LocalDateTime.now(clock);
+        if (!tryAcquire(job, lockedAt, lockedAt.plus(lockAtMostFor))) {
+            log.debug("Job {} em execução por outro nó.", job);
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            LocalDateTime now = LocalDateTime.now(clock);
+            LocalDateTime heldUntil = lockedAt.plus(lockAtLeastFor);
+            repository.release(job, owner, heldUntil.isAfter(now) ? heldUntil : now);
+        }
+        return true;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private boolean tryAcquire(String job, LocalDateTime now, LocalDateTime until) {
+        if (repository.acquire(job, owner, now, until) > 0) {
+            return true;
+        }
+        if (repository.existsById(job)) {
+            return false;
+        }
+        try {
+            newTransaction.executeWithoutResult(status -> repository.saveAndFlush(JobLease.builder()
+                    .name(job).owner(owner).lockedAt(now).lockedUntil(until).build()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,126 @@
+package com.leandro.service.support;
+
+import com.leandro.model.projection.LoanDueDate;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.ScheduleService;
+import com.leandro.service.event.LoanCreatedEvent;
+import com.leandro.service.event.LoanReturnedEvent;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+@Slf4j
+@Component
+public class LateLoanDetector {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    private final LoanRepository loanRepository;
+    private final ScheduleService scheduleService;
+    private final JobLeases jobLeases;
+    private final int chunkSize;
+    private final Clock clock;
+
+    private final PriorityQueue<PendingLoan> queue = new PriorityQueue<>(
+            Comparator.comparing((PendingLoan pending) -> pending.dueDate).thenComparing(pending -> pending.loanId));
+    private final Map<Long, LocalDate> dueDates = new HashMap<>();
+
+    @Autowired
+    public LateLoanDetector(LoanRepository loanRepository, ScheduleService scheduleService, JobLeases jobLeases,
+                            @Value("${application.loans.late-scan.chunk-size:1000}") int chunkSize) {
+        this(loanRepository, scheduleService, jobLeases, chunkSize, Clock.systemDefaultZone());
+    }
+
+    public LateLoanDetector(LoanRepository loanRepository, ScheduleService scheduleService, JobLeases jobLeases,
+                            int chunkSize, Clock clock) {
+        this.loanRepository = loanRepository;
+        this.scheduleService = scheduleService;
+        this.jobLeases = jobLeases;
+        this.chunkSize = chunkSize;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDate today = LocalDate.now(clock);
+        Long lastId = 0L;
+        int loaded = 0;
+        while (true) {
+            List<LoanDueDate> chunk = loanRepository.findPendingDueDates(today, lastId, PageRequest.of(0, chunkSize));
+            chunk.forEach(loan -> schedule(loan.getId(), loan.getDueDate()));
+            loaded += chunk.size();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+        }
+        log.info("{} empréstimos aguardando vencimento.", loaded);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanCreated(LoanCreatedEvent event) {
+        if (event.getDueDate() != null) {
+            schedule(event.getLoanId(), event.getDueDate());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onLoanReturned(LoanReturnedEvent event) {
+        dueDates.remove(event.getLoanId());
+    }
+
+    @Scheduled(fixedDelayString = "${application.loans.late-detector.tick-ms:1000}")
+    public void fireDue() {
+        jobLeases.runExclusive("late-loan-detector", LEASE, Duration.ZERO, () -> {
+            List<Long> overdue = pollOverdue(LocalDate.now(clock));
+            for (int i = 0; i < overdue.size(); i += chunkSize) {
+                scheduleService.notifyLateLoans(overdue.subList(i, Math.min(i + chunkSize, overdue.size())));
+            }
+        });
+    }
+
+    public synchronized int pending() {
+        return dueDates.size();
+    }
+
+    private synchronized void schedule(Long loanId, LocalDate dueDate) {
+        dueDates.put(loanId, dueDate);
+        queue.add(new PendingLoan(dueDate, loanId));
+    }
+
+    private synchronized List<Long> pollOverdue(LocalDate today) {
+        List<Long> overdue = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().dueDate.isBefore(today)) {
+            PendingLoan next = queue.poll();
+            if (dueDates.remove(next.loanId, next.dueDate)) {
+                overdue.add(next.loanId);
+            }
+        }
+        return overdue;
+    }
+
+    @AllArgsConstructor
+    private static class PendingLoan {
+
+        private final LocalDate dueDate;
+        private final Long loanId;
+    }
+}
@@ -0,0 +1,75 @@
+package com.leandro.service.support;
+
+import com.leandro.model.entity.LoanCustomerGram;
+import com.leandro.model.entity.LoanCustomerGramId;
+import com.leandro.model.projection.LoanCustomer;
+import com.leandro.model.repository.LoanCustomerGramRepository;
+import com.leandro.model.repository.LoanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class LoanCustomerIndex {
+
+    private static final int REBUILD_PAGE_SIZE = 500;
+    private static final Duration LEASE = Duration.ofMinutes(30);
+
+    private LoanCustomerGramRepository gramRepository;
+    private LoanRepository loanRepository;
+    private JobLeases jobLeases;
+
+    @Autowired
+    public LoanCustomerIndex(LoanCustomerGramRepository gramRepository, LoanRepository loanRepository,
+                             JobLeases jobLeases) {
+        this.gramRepository = gramRepository;
+        this.loanRepository = loanRepository;
+        this.jobLeases = jobLeases;
+    }
+
+    public void index(Long loanId, String customer) {
+        gramRepository.saveAll(gramsOf(loanId, customer));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexMissing() {
+        jobLeases.runExclusive("loan-customer-index", LEASE, Duration.ZERO, this::indexUnindexedLoans);
+    }
+
+    private void indexUnindexedLoans() {
+        if (loanRepository.count() == 0) {
+            return;
+        }
+        Long lastId = 0L;
+        int indexed = 0;
+        while (true) {
+            List<LoanCustomer> page = loanRepository.findUnindexedCustomers(lastId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            gramRepository.saveAll(page.stream()
+                    .flatMap(loan -> gramsOf(loan.getId(), loan.getCustomer()).stream())
+                    .collect(Collectors.toList()));
+            indexed += page.size();
+            if (page.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+        if (indexed > 0) {
+            log.info("Índice de busca de clientes atualizado para {} empréstimos.", indexed);
+        }
+    }
+
+    private List<LoanCustomerGram> gramsOf(Long loanId, String customer) {
+        return CustomerGrams.of(customer)
+                .stream()
+                .map(gram -> new LoanCustomerGram(new LoanCustomerGramId(gram, loanId)))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,53 @@
+package com.leandro.service.support;
+
+import com.leandro.model.repository.LoanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+@Slf4j
+@Component
+public class LoanDueDateBackfill {
+
+    private static final Duration LEASE = Duration.ofMinutes(30);
+
+    private LoanRepository loanRepository;
+    private JobLeases jobLeases;
+    private int loanPeriodDays;
+
+    @Autowired
+    public LoanDueDateBackfill(LoanRepository loanRepository, JobLeases jobLeases,
+                               @Value("${application.loans.period-days:4}") int loanPeriodDays) {
+        this.loanRepository = loanRepository;
+        this.jobLeases = jobLeases;
+        this.loanPeriodDays = loanPeriodDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        jobLeases.runExclusive("loan-due-date-backfill", LEASE, Duration.ZERO, this::backfillDueDates);
+    }
+
+    private void backfillDueDates() {
+        int updated = 0;
+        for (LocalDate loanDate : loanRepository.findLoanDatesWithoutDueDate()) {
+            updated += loanRepository.backfillDueDate(loanDate, loanDate.plusDays(loanPeriodDays));
+        }
+        if (updated > 0) {
+            log.info("Data de devolução preenchida para {} empréstimos.", updated);
+        }
+        int scheduled = 0;
+        for (LocalDate dueDate : loanRepository.findDueDatesWithoutReminder()) {
+            scheduled += loanRepository.backfillNextNotificationDate(dueDate, dueDate.plusDays(1));
+        }
+        if (scheduled > 0) {
+            log.info("Lembrete de atraso agendado para {} empréstimos.", scheduled);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.leandro.service.support;
+
+import com.leandro.model.entity.LoanTotals;
+import com.leandro.model.projection.LoanCounts;
+import com.leandro.model.repository.BookLoanStatsRepository;
+import com.leandro.model.repository.CustomerLoanStatsRepository;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.model.repository.LoanTotalsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+public class LoanStatsBackfill {
+
+    private static final Duration LEASE = Duration.ofMinutes(30);
+
+    private LoanRepository loanRepository;
+    private BookLoanStatsRepository bookStatsRepository;
+    private CustomerLoanStatsRepository customerStatsRepository;
+    private LoanTotalsRepository totalsRepository;
+    private MostBorrowedBooks mostBorrowedBooks;
+    private TransactionTemplate transactionTemplate;
+    private JobLeases jobLeases;
+    private int slots;
+
+    @Autowired
+    public LoanStatsBackfill(LoanRepository loanRepository, BookLoanStatsRepository bookStatsRepository,
+                             CustomerLoanStatsRepository customerStatsRepository, LoanTotalsRepository totalsRepository,
+                             MostBorrowedBooks mostBorrowedBooks, TransactionTemplate transactionTemplate, JobLeases jobLeases,
+                             @Value("${application.loans.stats.slots:16}") int slots) {
+        this.loanRepository = loanRepository;
+        this.bookStatsRepository = bookStatsRepository;
+        this.customerStatsRepository = customerStatsRepository;
+        this.totalsRepository = totalsRepository;
+        this.mostBorrowedBooks = mostBorrowedBooks;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLeases = jobLeases;
+        this.slots = slots;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        jobLeases.runExclusive("loan-stats-backfill", LEASE, Duration.ZERO, this::backfillTotals);
+        mostBorrowedBooks.load();
+    }
+
+    private void backfillTotals() {
+        if (totalsRepository.count() == 0) {
+            transactionTemplate.execute(status -> {
+                int books = bookStatsRepository.backfill();
+                int customers = customerStatsRepository.backfill();
+                LoanCounts counts = loanRepository.countLoans();
+                List<LoanTotals> totals = new ArrayList<>(slots);
+                for (int slot = 0; slot < slots; slot++) {
+                    totals.add(slot == 0
+                            ? new LoanTotals(slot, counts.getLoans(), counts.getOpenLoans())
+                            : new LoanTotals(slot, 0, 0));
+                }
+                totalsRepository.saveAll(totals);
+                log.info("Estatísticas de empréstimos calculadas para {} livros e {} clientes.", books, customers);
+                return null;
+            });
+        }
+    }
+}
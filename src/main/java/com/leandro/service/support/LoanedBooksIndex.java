@@ -0,0 +1,121 @@
+package com.leandro.service.support;
+
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.event.LoanCreatedEvent;
+import com.leandro.service.event.LoanReturnedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+public class LoanedBooksIndex {
+
+    private final LoanRepository loanRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Roaring64NavigableMap loaned = new Roaring64NavigableMap();
+    private List<Consumer<Roaring64NavigableMap>> pendingChanges;
+
+    @Autowired
+    public LoanedBooksIndex(LoanRepository loanRepository) {
+        this.loanRepository = loanRepository;
+    }
+
+    public boolean isLoaned(long bookId) {
+        lock.readLock().lock();
+        try {
+            return loaned.contains(bookId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return loaned.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanCreated(LoanCreatedEvent event) {
+        long bookId = event.getBookId();
+        apply(bitmap -> bitmap.addLong(bookId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanReturned(LoanReturnedEvent event) {
+        long bookId = event.getBookId();
+        apply(bitmap -> bitmap.removeLong(bookId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${application.loans.availability.reconcile-ms:300000}",
+            initialDelayString = "${application.loans.availability.reconcile-ms:300000}")
+    public synchronized void reconcile() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Roaring64NavigableMap rebuilt = new Roaring64NavigableMap();
+        try {
+            loanRepository.findLoanedBookIds().forEach(rebuilt::addLong);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        rebuilt.runOptimize();
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            if (!loaned.equals(rebuilt)) {
+                log.warn("Índice de livros emprestados divergia do banco: {} em memória, {} no banco.",
+                        loaned.getLongCardinality(), rebuilt.getLongCardinality());
+            }
+            loaned = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Roaring64NavigableMap> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(loaned);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
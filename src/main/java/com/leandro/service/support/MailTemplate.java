@@ -0,0 +1,64 @@
+package com.leandro.service.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int ESTIMATED_VALUE_LENGTH = 16;
+
+    private final String[] literals;
+    private final int[] slots;
+    private final int estimatedLength;
+
+    private MailTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        int length = slots.length * ESTIMATED_VALUE_LENGTH;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.estimatedLength = length;
+    }
+
+    public static MailTemplate compile(String source, List<String> variables) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Placeholder sem fechamento na posição " + open + ".");
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            int slot = variables.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Variável desconhecida no template: " + name + ".");
+            }
+            literals.add(source.substring(position, open));
+            slots.add(slot);
+            position = close + CLOSE.length();
+        }
+        return new MailTemplate(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public String render(String[] values) {
+        StringBuilder out = new StringBuilder(estimatedLength);
+        out.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            String value = values[slots[i]];
+            if (value != null) {
+                out.append(value);
+            }
+            out.append(literals[i + 1]);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.leandro.service.support;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class MailTemplates {
+
+    public static final String LATE_LOAN = "late-loan";
+
+    private static final Map<String, List<String>> VARIABLES = Collections.singletonMap(LATE_LOAN,
+            Arrays.asList("customer", "bookTitle", "dueDate", "daysLate"));
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final int parallelThreshold;
+
+    private volatile Map<String, CompiledMail> templates = Collections.emptyMap();
+
+    @Autowired
+    public MailTemplates(ResourceLoader resourceLoader,
+                         @Value("${application.mail.templates.location:classpath:mail-templates.properties}") String location,
+                         @Value("${application.mail.templates.parallel-threshold:2000}") int parallelThreshold) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @PostConstruct
+    public void load() {
+        reload();
+    }
+
+    public Set<String> reload() {
+        Properties source;
+        try {
+            Resource resource = resourceLoader.getResource(location);
+            source = PropertiesLoaderUtils.loadProperties(new EncodedResource(resource, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível ler os templates de email em " + location + ".", e);
+        }
+
+        Map<String, CompiledMail> compiled = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : VARIABLES.entrySet()) {
+            String name = entry.getKey();
+            String subject = source.getProperty(name + ".subject");
+            String body = source.getProperty(name + ".body");
+            if (subject == null || body == null) {
+                throw new IllegalStateException("Template de email incompleto: " + name + ".");
+            }
+            try {
+                compiled.put(name, new CompiledMail(MailTemplate.compile(subject, entry.getValue()),
+                        MailTemplate.compile(body, entry.getValue())));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Template de email inválido (" + name + "): " + e.getMessage(), e);
+            }
+        }
+        templates = compiled;
+        log.info("{} templates de email carregados de {}.", compiled.size(), location);
+        return new TreeSet<>(compiled.keySet());
+    }
+
+    public <T> List<RenderedMail> render(String name, List<T> models, Function<T, String> recipient,
+                                         Function<T, String[]> values) {
+        CompiledMail mail = templates.get(name);
+        if (mail == null) {
+            throw new IllegalArgumentException("Template de email inexistente: " + name + ".");
+        }
+        Stream<T> stream = models.size() >= parallelThreshold ? models.parallelStream() : models.stream();
+        return stream.map(model -> mail.render(recipient.apply(model), values.apply(model)))
+                .collect(Collectors.toList());
+    }
+
+    @AllArgsConstructor
+    private static class CompiledMail {
+
+        private final MailTemplate subject;
+        private final MailTemplate body;
+
+        private RenderedMail render(String recipient, String[] values) {
+            return new RenderedMail(recipient, subject.render(values), body.render(values));
+        }
+    }
+}
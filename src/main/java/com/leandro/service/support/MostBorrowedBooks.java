@@ -0,0 +1,87 @@
+package com.leandro.service.support;
+
+import com.leandro.api.dto.BookLoanStatsDTO;
+import com.leandro.model.entity.BookLoanStats;
+import com.leandro.model.repository.BookLoanStatsRepository;
+import com.leandro.service.event.LoanCreatedEvent;
+import com.leandro.service.event.LoanReturnedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+@Component
+public class MostBorrowedBooks {
+
+    private static final Comparator<BookLoanStatsDTO> RANKING = Comparator.comparingLong(BookLoanStatsDTO::getLoans)
+            .thenComparing(BookLoanStatsDTO::getBookId, Comparator.reverseOrder());
+
+    private final BookLoanStatsRepository repository;
+    private final int size;
+
+    private final PriorityQueue<BookLoanStatsDTO> heap = new PriorityQueue<>(RANKING);
+    private final Map<Long, BookLoanStatsDTO> entries = new HashMap<>();
+
+    @Autowired
+    public MostBorrowedBooks(BookLoanStatsRepository repository,
+                             @Value("${application.loans.stats.top-books:10}") int size) {
+        this.repository = repository;
+        this.size = size;
+    }
+
+    public void load() {
+        List<BookLoanStats> top = repository.findTop(PageRequest.of(0, size));
+        synchronized (this) {
+            heap.clear();
+            entries.clear();
+            top.forEach(this::offer);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanCreated(LoanCreatedEvent event) {
+        repository.findById(event.getBookId()).ifPresent(this::offer);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanReturned(LoanReturnedEvent event) {
+        if (contains(event.getBookId())) {
+            repository.findById(event.getBookId()).ifPresent(this::offer);
+        }
+    }
+
+    public synchronized List<BookLoanStatsDTO> top() {
+        List<BookLoanStatsDTO> top = new ArrayList<>(heap);
+        top.sort(RANKING.reversed());
+        return top;
+    }
+
+    synchronized void offer(BookLoanStats stats) {
+        BookLoanStatsDTO entry = new BookLoanStatsDTO(stats.getBookId(), stats.getLoans(), stats.getOpenLoans());
+        BookLoanStatsDTO current = entries.remove(entry.getBookId());
+        if (current != null) {
+            heap.remove(current);
+        }
+        if (heap.size() >= size) {
+            if (RANKING.compare(entry, heap.peek()) <= 0) {
+                return;
+            }
+            entries.remove(heap.poll().getBookId());
+        }
+        heap.add(entry);
+        entries.put(entry.getBookId(), entry);
+    }
+
+    private synchronized boolean contains(Long bookId) {
+        return entries.containsKey(bookId);
+    }
+}
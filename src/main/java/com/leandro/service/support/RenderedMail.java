@@ -0,0 +1,13 @@
+package com.leandro.service.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RenderedMail {
+
+    private final String recipient;
+    private final String subject;
+    private final String body;
+}
@@ -0,0 +1,45 @@
+package com.leandro.service.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class StripedLock {
+
+    private final ReentrantLock[] locks;
+
+    @Autowired
+    public StripedLock(@Value("${application.loans.lock-stripes:64}") int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Lock stripes must be positive.");
+        }
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Object key, Supplier<T> action) {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int stripeOf(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, locks.length);
+    }
+
+    private ReentrantLock lockFor(Object key) {
+        return locks[stripeOf(key)];
+    }
+}
@@ -1,5 +1,7 @@
 package com.leandro;
 
+import com.leandro.api.mapper.BookMapper;
+import com.leandro.api.mapper.LoanMapper;
 import com.leandro.api.resource.BookController;
 import com.leandro.api.resource.LoanController;
 import com.leandro.model.repository.BookRepository;
@@ -8,7 +10,6 @@ import com.leandro.service.BookService;
 import com.leandro.service.LoanService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -18,7 +19,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 class LibraryApiApplicationTests {
 
 	@Autowired
-	ModelMapper mapper;
+	BookMapper bookMapper;
+
+	@Autowired
+	LoanMapper loanMapper;
 
 	@Autowired
 	BookService bookService;
@@ -40,7 +44,8 @@ class LibraryApiApplicationTests {
 
 	@Test
 	void contextLoads() {
-		assertThat(mapper).isNotNull();
+		assertThat(bookMapper).isNotNull();
+		assertThat(loanMapper).isNotNull();
 		assertThat(bookService).isNotNull();
 		assertThat(loanService).isNotNull();
 		assertThat(bookController).isNotNull();
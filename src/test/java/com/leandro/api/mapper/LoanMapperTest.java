@@ -0,0 +1,58 @@
+package com.leandro.api.mapper;
+
+import com.leandro.api.dto.BookDTO;
+import com.leandro.api.dto.LoanDTO;
+import com.leandro.model.entity.Book;
+import com.leandro.model.entity.Loan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoanMapperTest {
+
+    LoanMapper mapper = new LoanMapper(new BookMapper());
+
+    @Test
+    @DisplayName("Deve converter um empréstimo com o livro para dto")
+    void toDtoTest() {
+        Book book = Book.builder().id(2L).isbn("123").title("Title").author("Author").build();
+        Loan loan = Loan.builder().id(1L).book(book).customer("Fulano").customerEmail("fulano@email.com")
+                .loanDate(LocalDate.now()).build();
+
+        LoanDTO dto = mapper.toDto(loan);
+
+        assertThat(dto.getId()).isEqualTo(1L);
+        assertThat(dto.getCustomer()).isEqualTo("Fulano");
+        assertThat(dto.getCustomerEmail()).isEqualTo("fulano@email.com");
+        assertThat(dto.getBook().getId()).isEqualTo(2L);
+        assertThat(dto.getBook().getIsbn()).isEqualTo("123");
+        assertThat(dto.getBook().getTitle()).isEqualTo("Title");
+        assertThat(dto.getBook().getAuthor()).isEqualTo("Author");
+    }
+
+    @Test
+    @DisplayName("Deve converter um dto de empréstimo para entidade")
+    void toEntityTest() {
+        BookDTO book = BookDTO.builder().isbn("123").build();
+        LoanDTO dto = LoanDTO.builder().book(book).customer("Fulano").customerEmail("fulano@email.com").build();
+
+        Loan loan = mapper.toEntity(dto);
+
+        assertThat(loan.getId()).isNull();
+        assertThat(loan.getCustomer()).isEqualTo("Fulano");
+        assertThat(loan.getCustomerEmail()).isEqualTo("fulano@email.com");
+        assertThat(loan.getBook().getIsbn()).isEqualTo("123");
+    }
+
+    @Test
+    @DisplayName("Deve manter o livro nulo quando o empréstimo não tiver livro")
+    void nullBookTest() {
+        LoanDTO dto = mapper.toDto(Loan.builder().id(1L).build());
+
+        assertThat(dto.getBook()).isNull();
+        assertThat(mapper.toDto(null)).isNull();
+    }
+}
@@ -1,11 +1,21 @@
 package com.leandro.api.resource;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leandro.api.CursorCodec;
+import com.leandro.api.dto.BookAvailabilityDTO;
 import com.leandro.api.dto.BookDTO;
+import com.leandro.api.dto.BookImportErrorDTO;
+import com.leandro.api.dto.BookImportResultDTO;
+import com.leandro.api.dto.LoanDTO;
 import com.leandro.api.exceptions.BussinesException;
 import com.leandro.model.entity.Book;
 import com.leandro.model.entity.Loan;
+import com.leandro.service.BookAvailabilityService;
+import com.leandro.service.BookExportService;
+import com.leandro.service.BookImportService;
+import com.leandro.service.ExportFormat;
 import com.leandro.service.BookService;
+import com.leandro.service.LoanArchiveService;
 import com.leandro.service.LoanService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,18 +29,32 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -50,6 +74,18 @@ class BookControllerTest {
     @MockBean
     LoanService loanService;
 
+    @MockBean
+    BookImportService importService;
+
+    @MockBean
+    BookExportService exportService;
+
+    @MockBean
+    BookAvailabilityService availabilityService;
+
+    @MockBean
+    LoanArchiveService archiveService;
+
     private BookDTO createNewBook() {
         return BookDTO.builder().author("Arthur").title("Meu livro").isbn("12345").build();
     }
@@ -122,14 +158,14 @@ class BookControllerTest {
 
         // cenário
         Long id = 1L;
-        Book book = Book.builder()
+        BookDTO book = BookDTO.builder()
                 .id(id)
                 .author(createNewBook().getAuthor())
                 .title(createNewBook().getTitle())
                 .isbn(createNewBook().getIsbn())
                 .build();
 
-        BDDMockito.given(bookService.getById(id)).willReturn(Optional.of(book));
+        BDDMockito.given(bookService.getDetails(id)).willReturn(Optional.of(book));
 
         // execução
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -148,7 +184,7 @@ class BookControllerTest {
     @DisplayName("Deve retornar Resource not found quando o livro não existir na base")
     void bookNotFoundTest() throws Exception {
 
-        BDDMockito.given(bookService.getById(Mockito.anyLong())).willReturn(Optional.empty());
+        BDDMockito.given(bookService.getDetails(Mockito.anyLong())).willReturn(Optional.empty());
 
         // execução
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -257,15 +293,15 @@ class BookControllerTest {
         // cenário
         Long id = 1L;
 
-        Book book = Book.builder()
+        BookDTO book = BookDTO.builder()
                 .id(id)
                 .author(createNewBook().getAuthor())
                 .title(createNewBook().getTitle())
                 .isbn(createNewBook().getIsbn())
                 .build();
 
-        BDDMockito.given(bookService.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
-                .willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
+        BDDMockito.given(bookService.findDtos(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<BookDTO>(Arrays.asList(book), PageRequest.of(0, 100), 1));
 
         String queryString = String.format("?title=%s&author=%s&page=0&size=100",
                 book.getTitle(), book.getAuthor());
@@ -288,13 +324,12 @@ class BookControllerTest {
     @DisplayName("Deve encontrar todos os empréstimos de um livro")
     void loansByBookTest() throws Exception {
 
-        Book book = Book.builder().build();
-        Loan loan = Loan.builder().build();
+        LoanDTO loan = LoanDTO.builder().build();
 
 
-        BDDMockito.given(bookService.getById(Mockito.anyLong())).willReturn(Optional.of(book));
-        BDDMockito.given(loanService.findLoansByBook(Mockito.any(Book.class), Mockito.any(Pageable.class)))
-                .willReturn(new PageImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 100), 1));
+        BDDMockito.given(bookService.exists(Mockito.anyLong())).willReturn(true);
+        BDDMockito.given(loanService.findLoanDtosByBook(Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<LoanDTO>(Arrays.asList(loan), PageRequest.of(0, 100), 1));
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
                 .get(BOOK_API.concat("/1/loans"))
@@ -311,7 +346,7 @@ class BookControllerTest {
     @Test
     @DisplayName("Deve lançar erro quando buscar empréstimo com livro inexistente")
     void loansByInexistenceBookTest() throws Exception {
-        BDDMockito.given(bookService.getById(Mockito.anyLong())).willReturn(Optional.empty());
+        BDDMockito.given(bookService.exists(Mockito.anyLong())).willReturn(false);
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
                 .get(BOOK_API.concat("/1/loans"))
@@ -320,7 +355,359 @@ class BookControllerTest {
         mvc.perform(request)
                 .andExpect(status().isNotFound());
 
-        Mockito.verify(loanService, Mockito.never()).findLoansByBook(Mockito.any(Book.class), Mockito.any(Pageable.class));
+        Mockito.verify(loanService, Mockito.never()).findLoanDtosByBook(Mockito.anyLong(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar o histórico ativo e arquivado de empréstimos de um livro")
+    void loanHistoryByBookTest() throws Exception {
+        LoanDTO active = LoanDTO.builder().id(9L).build();
+        LoanDTO archived = LoanDTO.builder().id(3L).build();
+        BDDMockito.given(bookService.exists(1L)).willReturn(true);
+        BDDMockito.given(archiveService.findHistoryByBook(Mockito.eq(1L), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<>(Arrays.asList(active, archived), PageRequest.of(0, 20), 2));
+
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1/loans?includeArchived=true")).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(2)))
+                .andExpect(jsonPath("content[1].id").value(3L))
+                .andExpect(jsonPath("totalElements").value(2));
+
+        Mockito.verify(loanService, Mockito.never()).findLoanDtosByBook(Mockito.anyLong(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro ao buscar o histórico de empréstimos de um livro inexistente")
+    void loanHistoryByInexistentBookTest() throws Exception {
+        BDDMockito.given(bookService.exists(1L)).willReturn(false);
+
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1/loans?includeArchived=true")).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+
+        Mockito.verify(archiveService, Mockito.never()).findHistoryByBook(Mockito.anyLong(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve importar um lote de livros em formato json")
+    void importJsonArrayTest() throws Exception {
+        List<BookDTO> received = new ArrayList<>();
+        BDDMockito.given(importService.importBooks(Mockito.any())).willAnswer(invocation -> {
+            Iterator<BookDTO> books = invocation.getArgument(0);
+            books.forEachRemaining(received::add);
+            return BookImportResultDTO.builder().imported(2).build();
+        });
+
+        String json = new ObjectMapper().writeValueAsString(Arrays.asList(createNewBook(), createNewBook()));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("imported").value(2))
+                .andExpect(jsonPath("failed").value(0));
+
+        assertThat(received).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Deve importar um lote de livros em formato ndjson e reportar os erros")
+    void importNdjsonTest() throws Exception {
+        List<BookDTO> received = new ArrayList<>();
+        BDDMockito.given(importService.importBooks(Mockito.any())).willAnswer(invocation -> {
+            Iterator<BookDTO> books = invocation.getArgument(0);
+            books.forEachRemaining(received::add);
+            BookImportErrorDTO error = BookImportErrorDTO.builder().index(1).isbn("12345")
+                    .errors(Collections.singletonList("Isbn já cadastrado.")).build();
+            return BookImportResultDTO.builder().imported(1).failed(1)
+                    .errors(Collections.singletonList(error)).build();
+        });
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        String ndjson = objectMapper.writeValueAsString(createNewBook()) + "\n" + objectMapper.writeValueAsString(createNewBook()) + "\n";
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/batch"))
+                .contentType("application/x-ndjson")
+                .accept(MediaType.APPLICATION_JSON)
+                .content(ndjson);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("imported").value(1))
+                .andExpect(jsonPath("failed").value(1))
+                .andExpect(jsonPath("errors[0].index").value(1))
+                .andExpect(jsonPath("errors[0].errors[0]").value("Isbn já cadastrado."));
+
+        assertThat(received).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Deve informar a disponibilidade de vários livros por id e isbn")
+    void availabilityTest() throws Exception {
+        BDDMockito.given(availabilityService.check(Mockito.anyCollection(), Mockito.anyCollection()))
+                .willReturn(Arrays.asList(new BookAvailabilityDTO(1L, null, false), new BookAvailabilityDTO(2L, "123", true)));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/availability"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1],\"isbns\":[\"123\"]}");
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("[0].available").value(false))
+                .andExpect(jsonPath("[1].isbn").value("123"))
+                .andExpect(jsonPath("[1].available").value(true));
+    }
+
+    @Test
+    @DisplayName("Deve buscar livros pelo texto informado")
+    void searchBooksTest() throws Exception {
+        Book book = Book.builder().id(1L).title("Dom Casmurro").author("Machado de Assis").isbn("123").build();
+
+        BDDMockito.given(bookService.search(Mockito.eq("machado"), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 20), 1));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/search?q=machado"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].title").value("Dom Casmurro"))
+                .andExpect(jsonPath("totalElements").value(1));
+    }
+
+    @Test
+    @DisplayName("Deve paginar livros por cursor sem contar o total")
+    void findBooksByCursorTest() throws Exception {
+        Book first = Book.builder().id(1L).title("Titulo").author("Autor").isbn("1").build();
+        Book second = Book.builder().id(2L).title("Titulo").author("Autor").isbn("2").build();
+        Book third = Book.builder().id(3L).title("Titulo").author("Autor").isbn("3").build();
+
+        BDDMockito.given(bookService.findAfter(Mockito.any(Book.class), Mockito.isNull(), Mockito.eq(3)))
+                .willReturn(Arrays.asList(first, second, third));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?cursor=&size=2"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(2)))
+                .andExpect(jsonPath("next").value(CursorCodec.encode(2L)))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve continuar a paginação a partir do cursor informado")
+    void findBooksFromCursorTest() throws Exception {
+        Book book = Book.builder().id(3L).title("Titulo").author("Autor").isbn("3").build();
+
+        BDDMockito.given(bookService.findAfter(Mockito.any(Book.class), Mockito.eq(2L), Mockito.eq(3)))
+                .willReturn(Arrays.asList(book));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?size=2&cursor=" + CursorCodec.encode(2L)))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].id").value(3L))
+                .andExpect(jsonPath("next").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro para um cursor inválido")
+    void invalidCursorTest() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?cursor=invalido"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Invalid cursor"));
+    }
+
+    @Test
+    @DisplayName("Deve filtrar livros sem calcular o total quando withTotal=false")
+    void findBooksWithoutTotalTest() throws Exception {
+        Book book = Book.builder().id(1L).title("Titulo").author("Autor").isbn("123").build();
+
+        BDDMockito.given(bookService.findSlice(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new SliceImpl<Book>(Arrays.asList(book), PageRequest.of(0, 1), true));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?title=Titulo&page=0&size=1&withTotal=false"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("hasNext").value(true))
+                .andExpect(jsonPath("page").value(0))
+                .andExpect(jsonPath("size").value(1))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+
+        Mockito.verify(bookService, Mockito.never()).find(Mockito.any(Book.class), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve obter os empréstimos de um livro sem calcular o total")
+    void loansByBookWithoutTotalTest() throws Exception {
+        Book book = Book.builder().id(1L).isbn("123").build();
+        Loan loan = Loan.builder().id(1L).book(book).customer("Fulano").build();
+
+        BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+        BDDMockito.given(loanService.findLoanSliceByBook(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new SliceImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 10), false));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/1/loans?withTotal=false"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("hasNext").value(false));
+    }
+
+    @Test
+    @DisplayName("Deve recusar o histórico de empréstimos sem total")
+    void loanHistoryByBookWithoutTotalTest() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1/loans?includeArchived=true&withTotal=false"))
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("withTotal=false is not supported with includeArchived=true"));
+
+        Mockito.verify(loanService, Mockito.never()).findLoanSliceByBook(Mockito.any(Book.class), Mockito.any(Pageable.class));
+        Mockito.verify(archiveService, Mockito.never()).findHistoryByBook(Mockito.anyLong(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve exportar o catálogo em csv como stream")
+    void exportCsvTest() throws Exception {
+        BDDMockito.given(exportService.export(Mockito.eq(ExportFormat.CSV), Mockito.any(OutputStream.class))).willAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("id,title,author,isbn\n1,Titulo,Autor,123\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export?format=csv")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=books.csv"))
+                .andExpect(content().string("id,title,author,isbn\n1,Titulo,Autor,123\n"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro para um formato de exportação inválido")
+    void exportInvalidFormatTest() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export?format=xml")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Invalid export format"));
+
+        Mockito.verify(exportService, Mockito.never()).export(Mockito.any(ExportFormat.class), Mockito.any(OutputStream.class));
     }
 
+    @Test
+    @DisplayName("Deve retornar o ETag da versão do livro")
+    void getBookDetailsETagTest() throws Exception {
+        BookDTO book = BookDTO.builder().id(1L).title("Titulo").author("Autor").isbn("123").version(3L).build();
+
+        BDDMockito.given(bookService.getDetails(1L)).willReturn(Optional.of(book));
+
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1")).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("id").value(1L));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 304 sem carregar o livro quando o ETag não mudou")
+    void getBookDetailsNotModifiedTest() throws Exception {
+        BDDMockito.given(bookService.getVersion(1L)).willReturn(Optional.of(3L));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/1"))
+                .header("If-None-Match", "\"3\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        Mockito.verify(bookService, Mockito.never()).getDetails(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve retornar o livro quando o ETag informado estiver desatualizado")
+    void getBookDetailsModifiedTest() throws Exception {
+        BookDTO book = BookDTO.builder().id(1L).title("Titulo").author("Autor").isbn("123").version(4L).build();
+
+        BDDMockito.given(bookService.getVersion(1L)).willReturn(Optional.of(4L));
+        BDDMockito.given(bookService.getDetails(1L)).willReturn(Optional.of(book));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/1"))
+                .header("If-None-Match", "\"3\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("title").value("Titulo"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a atualização quando o If-Match não corresponder à versão atual")
+    void updateBookPreconditionFailedTest() throws Exception {
+        Book book = Book.builder().id(1L).title("Titulo").author("Autor").isbn("123").version(4L).build();
+        BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/1"))
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(createNewBook()));
+
+        mvc.perform(request)
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("errors[0]").value("Book was modified"));
+
+        Mockito.verify(bookService, Mockito.never()).update(Mockito.any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Deve retornar conflito quando outra requisição alterou o livro")
+    void updateBookConflictTest() throws Exception {
+        Book book = Book.builder().id(1L).title("Titulo").author("Autor").isbn("123").version(4L).build();
+        BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+        BDDMockito.given(bookService.update(Mockito.any(Book.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/1"))
+                .header("If-Match", "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(createNewBook()));
+
+        mvc.perform(request)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("errors", hasSize(1)));
+    }
 }
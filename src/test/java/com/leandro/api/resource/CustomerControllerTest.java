@@ -0,0 +1,62 @@
+package com.leandro.api.resource;
+
+import com.leandro.api.dto.BookDTO;
+import com.leandro.api.dto.LoanDTO;
+import com.leandro.service.LoanService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = CustomerController.class)
+@AutoConfigureMockMvc
+class CustomerControllerTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    LoanService loanService;
+
+    @Test
+    @DisplayName("Deve listar os empréstimos de um cliente pelo email")
+    void loansByCustomerTest() throws Exception {
+        LoanDTO loan = LoanDTO.builder().id(1L).customer("Fulano").customerEmail("fulano@email.com")
+                .book(BookDTO.builder().id(2L).isbn("123").build()).build();
+        BDDMockito.given(loanService.findLoanDtosByCustomer(Mockito.eq("fulano@email.com"), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<>(Collections.singletonList(loan), PageRequest.of(0, 20), 1));
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/customers/fulano@email.com/loans").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content[0].id").value(1L))
+                .andExpect(jsonPath("content[0].customerEmail").value("fulano@email.com"))
+                .andExpect(jsonPath("totalElements").value(1));
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        Mockito.verify(loanService).findLoanDtosByCustomer(Mockito.eq("fulano@email.com"), pageable.capture());
+        assertThat(pageable.getValue().getSort().getOrderFor("id").getDirection()).isEqualTo(Sort.Direction.DESC);
+    }
+}
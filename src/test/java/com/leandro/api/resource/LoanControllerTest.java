@@ -1,14 +1,19 @@
 package com.leandro.api.resource;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leandro.api.CursorCodec;
 import com.leandro.api.dto.BookDTO;
 import com.leandro.api.dto.LoanDTO;
 import com.leandro.api.dto.LoanFilterDTO;
+import com.leandro.api.dto.LoanReturnRequestDTO;
+import com.leandro.api.dto.LoanReturnResultDTO;
+import com.leandro.api.dto.LoanReturnStatus;
 import com.leandro.api.dto.ReturnedLoanDTO;
 import com.leandro.api.exceptions.BussinesException;
 import com.leandro.model.entity.Book;
 import com.leandro.model.entity.Loan;
 import com.leandro.service.BookService;
+import com.leandro.service.LoanReturnService;
 import com.leandro.service.LoanService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,6 +27,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -34,6 +40,7 @@ import java.util.Arrays;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -54,6 +61,9 @@ class LoanControllerTest {
     @MockBean
     LoanService loanService;
 
+    @MockBean
+    LoanReturnService returnService;
+
     @Test
     @DisplayName("Deve realizar um empréstimo")
     void createLoanTest() throws Exception {
@@ -154,6 +164,39 @@ class LoanControllerTest {
         Mockito.verify(loanService, Mockito.times(1)).update(Mockito.any(Loan.class));
     }
 
+    @Test
+    @DisplayName("Deve devolver empréstimos em lote informando o resultado de cada um")
+    void returnBooksInBatchTest() throws Exception {
+        LoanReturnRequestDTO dto = LoanReturnRequestDTO.builder()
+                .ids(Arrays.asList(1L, 2L, 3L))
+                .isbns(Arrays.asList("123"))
+                .build();
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        BDDMockito.given(returnService.returnLoans(dto.getIds(), dto.getIsbns()))
+                .willReturn(Arrays.asList(
+                        new LoanReturnResultDTO(1L, null, LoanReturnStatus.RETURNED),
+                        new LoanReturnResultDTO(2L, null, LoanReturnStatus.ALREADY_RETURNED),
+                        new LoanReturnResultDTO(3L, null, LoanReturnStatus.NOT_FOUND),
+                        new LoanReturnResultDTO(4L, "123", LoanReturnStatus.RETURNED)));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .patch(LOAN_API.concat("/returns"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("[0].status").value("RETURNED"))
+                .andExpect(jsonPath("[1].status").value("ALREADY_RETURNED"))
+                .andExpect(jsonPath("[2].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("[3].isbn").value("123"));
+
+        Mockito.verify(loanService, Mockito.never()).update(Mockito.any(Loan.class));
+    }
+
     @Test
     @DisplayName("Deve retornar erro ao tentar retornar empréstimo inexistente")
     void returnInexistenceLoan() throws Exception {
@@ -182,15 +225,14 @@ class LoanControllerTest {
         // cenário
         Long id = 1L;
 
-        Loan loan = Loan.builder()
+        LoanDTO loan = LoanDTO.builder()
                 .id(id)
-                .book(Book.builder().id(1L).isbn("123").build())
+                .book(BookDTO.builder().id(1L).isbn("123").build())
                 .customer("Customer")
-                .loanDate(LocalDate.now())
                 .build();
 
-        BDDMockito.given(loanService.find(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
-                .willReturn(new PageImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 100), 1));
+        BDDMockito.given(loanService.findDtos(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<LoanDTO>(Arrays.asList(loan), PageRequest.of(0, 100), 1));
 
         String queryString = String.format("?customer=%s&isbn=%s&page=0&size=100",
                 loan.getCustomer(), loan.getBook().getIsbn());
@@ -207,4 +249,92 @@ class LoanControllerTest {
                 .andExpect(jsonPath("pageable.pageSize").value(100))
                 .andExpect(jsonPath("pageable.pageNumber").value(0));
     }
+
+    @Test
+    @DisplayName("Deve paginar empréstimos por cursor")
+    void findLoansByCursorTest() throws Exception {
+        Loan loan = Loan.builder()
+                .id(5L)
+                .book(Book.builder().id(1L).isbn("123").build())
+                .customer("Customer")
+                .build();
+
+        BDDMockito.given(loanService.findAfter(Mockito.any(LoanFilterDTO.class), Mockito.eq(4L), Mockito.eq(11)))
+                .willReturn(Arrays.asList(loan));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?isbn=123&size=10&cursor=" + CursorCodec.encode(4L)))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].id").value(5L))
+                .andExpect(jsonPath("next").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve filtrar empréstimos sem calcular o total quando withTotal=false")
+    void findLoanWithoutTotalTest() throws Exception {
+        Loan loan = Loan.builder()
+                .id(1L)
+                .book(Book.builder().id(1L).isbn("123").build())
+                .customer("Customer")
+                .build();
+
+        BDDMockito.given(loanService.findSlice(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
+                .willReturn(new SliceImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 100), false));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?customer=Customer&page=0&size=100&withTotal=false"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("size").value(100))
+                .andExpect(jsonPath("hasNext").value(false))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve obter um empréstimo com ETag")
+    void getLoanDetailsTest() throws Exception {
+        Loan loan = Loan.builder().id(1L).customer("Fulano").customerEmail("fulano@email.com")
+                .book(Book.builder().id(2L).isbn("123").build()).version(0L).build();
+
+        BDDMockito.given(loanService.findById(1L)).willReturn(Optional.of(loan));
+
+        mvc.perform(MockMvcRequestBuilders.get(LOAN_API.concat("/1")).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("customer").value("Fulano"))
+                .andExpect(jsonPath("book.isbn").value("123"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 304 para um empréstimo não modificado")
+    void getLoanNotModifiedTest() throws Exception {
+        BDDMockito.given(loanService.getVersion(1L)).willReturn(Optional.of(2L));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(LOAN_API.concat("/1"))
+                .header("If-None-Match", "W/\"2\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(loanService, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve retornar not found para um empréstimo inexistente")
+    void getInexistentLoanTest() throws Exception {
+        BDDMockito.given(loanService.findById(Mockito.anyLong())).willReturn(Optional.empty());
+
+        mvc.perform(MockMvcRequestBuilders.get(LOAN_API.concat("/1")).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("errors[0]").value("Loan not found"));
+    }
 }
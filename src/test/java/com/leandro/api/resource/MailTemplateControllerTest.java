@@ -0,0 +1,55 @@
+package com.leandro.api.resource;
+
+import com.leandro.service.support.MailTemplates;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Collections;
+import java.util.TreeSet;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = MailTemplateController.class)
+@AutoConfigureMockMvc
+class MailTemplateControllerTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    MailTemplates mailTemplates;
+
+    @Test
+    @DisplayName("Deve recarregar os templates de email e informar os carregados")
+    void reloadTest() throws Exception {
+        BDDMockito.given(mailTemplates.reload()).willReturn(new TreeSet<>(Collections.singleton("late-loan")));
+
+        mvc.perform(MockMvcRequestBuilders.post("/api/mail-templates/reload").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("[0]").value("late-loan"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao recarregar templates inválidos")
+    void reloadInvalidTemplatesTest() throws Exception {
+        BDDMockito.given(mailTemplates.reload()).willThrow(new IllegalStateException("Template de email inválido"));
+
+        mvc.perform(MockMvcRequestBuilders.post("/api/mail-templates/reload").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("errors[0]").value("Template de email inválido"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.leandro.api.resource;
+
+import com.leandro.api.dto.BookLoanStatsDTO;
+import com.leandro.api.dto.CustomerLoanStatsDTO;
+import com.leandro.api.dto.LoanArchiveStatsDTO;
+import com.leandro.api.dto.LoanStatsDTO;
+import com.leandro.service.LoanArchiveService;
+import com.leandro.service.LoanStatsService;
+import com.leandro.service.support.EmailOutboxDispatcher;
+import com.leandro.service.support.IsbnCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Collections;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = StatsController.class)
+@AutoConfigureMockMvc
+class StatsControllerTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    IsbnCache isbnCache;
+
+    @MockBean
+    LoanStatsService loanStatsService;
+
+    @MockBean
+    LoanArchiveService loanArchiveService;
+
+    @MockBean
+    EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Test
+    @DisplayName("Deve retornar os totais de empréstimos com os livros mais emprestados")
+    void loansTest() throws Exception {
+        BDDMockito.given(loanStatsService.getStats())
+                .willReturn(new LoanStatsDTO(10, 3, Collections.singletonList(new BookLoanStatsDTO(1L, 7, 1))));
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/stats/loans").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("loans").value(10))
+                .andExpect(jsonPath("openLoans").value(3))
+                .andExpect(jsonPath("mostBorrowedBooks[0].bookId").value(1));
+    }
+
+    @Test
+    @DisplayName("Deve retornar os contadores de empréstimos de um livro")
+    void bookLoansTest() throws Exception {
+        BDDMockito.given(loanStatsService.getBookStats(1L)).willReturn(new BookLoanStatsDTO(1L, 7, 1));
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/stats/loans/books/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("loans").value(7))
+                .andExpect(jsonPath("openLoans").value(1));
+    }
+
+    @Test
+    @DisplayName("Deve retornar os contadores de empréstimos de um cliente pelo email")
+    void customerLoansTest() throws Exception {
+        BDDMockito.given(loanStatsService.getCustomerStats("fulano@email.com"))
+                .willReturn(new CustomerLoanStatsDTO("fulano@email.com", 4, 2));
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/stats/loans/customers/fulano@email.com").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("customerEmail").value("fulano@email.com"))
+                .andExpect(jsonPath("loans").value(4));
+    }
+
+    @Test
+    @DisplayName("Deve retornar as métricas do arquivamento de empréstimos")
+    void loanArchiveTest() throws Exception {
+        BDDMockito.given(loanArchiveService.getStats())
+                .willReturn(LoanArchiveStatsDTO.builder().archivedRows(120).lastPassRows(20).lastPassBatches(1).build());
+
+        mvc.perform(MockMvcRequestBuilders.get("/api/stats/loan-archive").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("archivedRows").value(120))
+                .andExpect(jsonPath("lastPassRows").value(20))
+                .andExpect(jsonPath("lastPassBatches").value(1));
+    }
+}
@@ -0,0 +1,71 @@
+package com.leandro.benchmark;
+
+import com.leandro.api.dto.BookDTO;
+import com.leandro.api.dto.BookImportResultDTO;
+import com.leandro.model.entity.Book;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.service.BookImportService;
+import com.leandro.service.BookService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BookImportBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20000);
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookImportService importService;
+
+    @Autowired
+    BookRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Compara a vazão da importação em lote com o cadastro individual")
+    void importThroughputTest() {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            bookService.save(Book.builder().isbn("single-" + i).title("Titulo " + i).author("Autor").build());
+        }
+        double singleRate = rowsPerSecond(System.nanoTime() - start);
+
+        List<BookDTO> books = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            books.add(BookDTO.builder().isbn("batch-" + i).title("Titulo " + i).author("Autor").build());
+        }
+        start = System.nanoTime();
+        BookImportResultDTO result = importService.importBooks(books.iterator());
+        double batchRate = rowsPerSecond(System.nanoTime() - start);
+
+        log.info("Cadastro individual: {} linhas/s", String.format("%.0f", singleRate));
+        log.info("Importação em lote: {} linhas/s", String.format("%.0f", batchRate));
+
+        assertThat(result.getImported()).isEqualTo(ROWS);
+    }
+
+    private double rowsPerSecond(long nanos) {
+        return ROWS / (nanos / 1_000_000_000d);
+    }
+}
@@ -0,0 +1,103 @@
+package com.leandro.benchmark;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.leandro.model.entity.EmailOutboxStatus;
+import com.leandro.model.repository.EmailOutboxRepository;
+import com.leandro.service.EmailService;
+import com.leandro.service.support.EmailOutboxDispatcher;
+import com.leandro.service.support.RenderedMail;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "application.mail.outbox.poll-ms=3600000"
+})
+@ActiveProfiles("test")
+class EmailOutboxBenchmarkTest {
+
+    private static final int RECIPIENTS = Integer.getInteger("benchmark.recipients", 2000);
+    private static final int WORKERS = Integer.getInteger("benchmark.workers", 4);
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    EmailService emailService;
+
+    @Autowired
+    EmailOutboxRepository repository;
+
+    @Autowired
+    JavaMailSender mailSender;
+
+    @Value("${application.mail.default-remetent}")
+    String from;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Compara a vazão do envio com uma conexão por email e com conexões reaproveitadas em lotes")
+    void dispatchThroughputTest() throws Exception {
+        double singleRate = messagesPerSecond(1, 1);
+        double batchRate = messagesPerSecond(50, 1);
+        double parallelRate = messagesPerSecond(50, WORKERS);
+
+        log.info("Uma conexão por email: {} emails/s", String.format("%.0f", singleRate));
+        log.info("Lotes de 50 por conexão: {} emails/s", String.format("%.0f", batchRate));
+        log.info("Lotes de 50 com {} workers: {} emails/s", WORKERS, String.format("%.0f", parallelRate));
+    }
+
+    private double messagesPerSecond(int batchSize, int workers) throws Exception {
+        greenMail.reset();
+        repository.deleteAllInBatch();
+        List<RenderedMail> mails = IntStream.range(0, RECIPIENTS)
+                .mapToObj(i -> new RenderedMail("cliente" + i + "@email.com", "Livro com empréstimo atrasado", "Devolva o livro"))
+                .collect(Collectors.toList());
+        emailService.sendMails(mails);
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(repository, mailSender, from, workers * 2, batchSize,
+                5, 1000, 1000, 600000, Duration.ofDays(7), executor, Clock.systemDefaultZone());
+        long start = System.nanoTime();
+        while (repository.countByStatus(EmailOutboxStatus.SENT) + repository.countByStatus(EmailOutboxStatus.DEAD) < RECIPIENTS) {
+            dispatcher.dispatch();
+            Thread.sleep(5);
+        }
+        long elapsed = System.nanoTime() - start;
+        dispatcher.shutdown();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(RECIPIENTS);
+        return RECIPIENTS / (elapsed / 1_000_000_000d);
+    }
+}
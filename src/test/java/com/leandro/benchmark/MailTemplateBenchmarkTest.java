@@ -0,0 +1,65 @@
+package com.leandro.benchmark;
+
+import com.leandro.service.support.MailTemplates;
+import com.leandro.service.support.RenderedMail;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("benchmark")
+class MailTemplateBenchmarkTest {
+
+    private static final int RECIPIENTS = Integer.getInteger("benchmark.recipients", 100_000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 10);
+
+    private final List<Integer> customers = IntStream.range(0, RECIPIENTS).boxed().collect(Collectors.toList());
+
+    @Test
+    @DisplayName("Mede a vazão da renderização dos templates de email sequencial e em paralelo")
+    void renderThroughputTest() {
+        run("Sequencial", new MailTemplates(new DefaultResourceLoader(), "classpath:mail-templates.properties", Integer.MAX_VALUE));
+        run("Paralelo", new MailTemplates(new DefaultResourceLoader(), "classpath:mail-templates.properties", 1));
+    }
+
+    private void run(String name, MailTemplates templates) {
+        templates.reload();
+        long sink = render(templates);
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sink += render(templates);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        long rendered = (long) RECIPIENTS * ROUNDS;
+
+        log.info("{}: {} emails/s, {} bytes/email na thread chamadora (sink {})", name,
+                String.format("%.0f", rendered / (nanos / 1_000_000_000d)), allocated / rendered, sink);
+    }
+
+    private long render(MailTemplates templates) {
+        List<RenderedMail> mails = templates.render(MailTemplates.LATE_LOAN, customers, i -> "cliente" + i + "@email.com",
+                i -> new String[]{"Cliente " + i, "Dom Casmurro", "01/06/2020", "12"});
+        assertThat(mails).hasSize(RECIPIENTS);
+        return mails.get(mails.size() - 1).getBody().length();
+    }
+
+    private long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
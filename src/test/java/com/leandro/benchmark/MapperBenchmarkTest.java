@@ -0,0 +1,65 @@
+package com.leandro.benchmark;
+
+import com.leandro.api.dto.LoanDTO;
+import com.leandro.api.mapper.BookMapper;
+import com.leandro.api.mapper.LoanMapper;
+import com.leandro.model.entity.Book;
+import com.leandro.model.entity.Loan;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+@Slf4j
+@Tag("benchmark")
+class MapperBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 1_000_000);
+
+    private final Loan loan = Loan.builder()
+            .id(1L)
+            .customer("Fulano")
+            .customerEmail("fulano@email.com")
+            .book(Book.builder().id(2L).isbn("123").title("Title").author("Author").build())
+            .build();
+
+    @Test
+    @DisplayName("Compara vazão e alocação do ModelMapper com o mapeamento manual")
+    void mapperThroughputTest() {
+        ModelMapper modelMapper = new ModelMapper();
+        LoanMapper loanMapper = new LoanMapper(new BookMapper());
+
+        run("ModelMapper", l -> modelMapper.map(l, LoanDTO.class));
+        run("LoanMapper", loanMapper::toDto);
+    }
+
+    private void run(String name, Function<Loan, LoanDTO> mapping) {
+        long sink = 0;
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            sink += mapping.apply(loan).getCustomer().length();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += mapping.apply(loan).getCustomer().length();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        log.info("{}: {} ops/s, {} bytes/op (sink {})", name,
+                String.format("%.0f", ITERATIONS / (nanos / 1_000_000_000d)), allocated / ITERATIONS, sink);
+    }
+
+    private long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
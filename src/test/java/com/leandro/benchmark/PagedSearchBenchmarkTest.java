@@ -0,0 +1,80 @@
+package com.leandro.benchmark;
+
+import com.leandro.api.dto.BookDTO;
+import com.leandro.model.entity.Book;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.service.BookImportService;
+import com.leandro.service.BookService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class PagedSearchBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookImportService importService;
+
+    @Autowired
+    BookRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        List<BookDTO> books = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            books.add(BookDTO.builder().isbn("isbn-" + i).title("Titulo " + i).author("Autor " + (i % 100)).build());
+        }
+        importService.importBooks(books.iterator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Compara a latência da busca paginada com e sem contagem do total")
+    void pageVersusSliceTest() {
+        Book filter = Book.builder().author("autor 1").build();
+        PageRequest pageRequest = PageRequest.of(10, 20);
+
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            bookService.find(filter, pageRequest);
+            bookService.findSlice(filter, pageRequest);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bookService.find(filter, pageRequest);
+        }
+        long pageNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bookService.findSlice(filter, pageRequest);
+        }
+        long sliceNanos = System.nanoTime() - start;
+
+        log.info("Page (com count): {} us/consulta", pageNanos / ITERATIONS / 1000);
+        log.info("Slice (size+1): {} us/consulta", sliceNanos / ITERATIONS / 1000);
+    }
+}
@@ -0,0 +1,136 @@
+package com.leandro.benchmark;
+
+import com.leandro.api.dto.BookDTO;
+import com.leandro.api.dto.LoanFilterDTO;
+import com.leandro.api.mapper.BookMapper;
+import com.leandro.api.mapper.LoanMapper;
+import com.leandro.model.entity.Book;
+import com.leandro.model.entity.Loan;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.model.repository.LoanCustomerGramRepository;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.BookImportService;
+import com.leandro.service.BookService;
+import com.leandro.service.LoanService;
+import com.leandro.service.support.LoanCustomerIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ProjectionBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 500);
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    BookImportService importService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    LoanCustomerGramRepository gramRepository;
+
+    @Autowired
+    LoanCustomerIndex customerIndex;
+
+    @Autowired
+    BookMapper bookMapper;
+
+    @Autowired
+    LoanMapper loanMapper;
+
+    @BeforeEach
+    void setUp() {
+        List<BookDTO> books = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            books.add(BookDTO.builder().isbn("isbn-" + i).title("Titulo " + i).author("Autor " + (i % 100)).build());
+        }
+        importService.importBooks(books.iterator());
+
+        List<Loan> loans = new ArrayList<>(ROWS);
+        for (Book book : bookRepository.findAll()) {
+            loans.add(Loan.builder().book(book).customer("Cliente " + (book.getId() % 100)).customerEmail("cliente@email.com").build());
+        }
+        loanRepository.saveAll(loans);
+        customerIndex.indexMissing();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gramRepository.deleteAllInBatch();
+        loanRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Compara latência e alocação da leitura de livros por entidade e por projeção")
+    void bookEntityVersusProjectionTest() {
+        Book filter = Book.builder().author("autor 1").build();
+        PageRequest pageRequest = PageRequest.of(0, 100);
+
+        run("Book entidade + mapper", () -> bookService.find(filter, pageRequest).map(bookMapper::toDto).getNumberOfElements());
+        run("Book projeção", () -> bookService.findDtos(filter, pageRequest).getNumberOfElements());
+    }
+
+    @Test
+    @DisplayName("Compara latência e alocação da leitura de empréstimos por entidade e por projeção")
+    void loanEntityVersusProjectionTest() {
+        LoanFilterDTO filter = LoanFilterDTO.builder().customer("cliente 1").build();
+        PageRequest pageRequest = PageRequest.of(0, 100);
+
+        run("Loan entidade + mapper", () -> loanService.find(filter, pageRequest).map(loanMapper::toDto).getNumberOfElements());
+        run("Loan projeção", () -> loanService.findDtos(filter, pageRequest).getNumberOfElements());
+    }
+
+    private void run(String name, IntSupplier query) {
+        long sink = 0;
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            sink += query.getAsInt();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += query.getAsInt();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        log.info("{}: {} us/consulta, {} KB/consulta (sink {})", name,
+                nanos / ITERATIONS / 1000, allocated / ITERATIONS / 1024, sink);
+    }
+
+    private long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -1,19 +1,31 @@
 package com.leandro.repository;
 
 import com.leandro.model.entity.Book;
+import com.leandro.model.entity.BookToken;
+import com.leandro.model.entity.BookTokenId;
+import com.leandro.model.entity.Loan;
+import com.leandro.model.projection.BookSummary;
 import com.leandro.model.repository.BookRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -31,28 +43,28 @@ class BookRepositoryTest {
     }
 
     @Test
-    @DisplayName("Deve retornar verdadeiro quando existir um livro na base com o isbn informado")
-    void returnTrueWhenIsbnExists() {
+    @DisplayName("Deve encontrar o livro quando existir um livro na base com o isbn informado")
+    void findByIsbnWhenIsbnExists() {
         // cenário
         String isbn = "123";
         Book book = createNewBook(isbn);
         entityManager.persist(book);
 
         // execução
-        boolean exists = repository.existsByIsbn(isbn);
+        boolean exists = repository.findByIsbn(isbn).isPresent();
 
         // verificação
         assertThat(exists).isTrue();
     }
 
     @Test
-    @DisplayName("Deve retornar falso quando não existir um livro na base com o isbn informado")
-    void returnFalseWhenIsbnDoesntExists() {
+    @DisplayName("Não deve encontrar livro quando não existir um livro na base com o isbn informado")
+    void findByIsbnWhenIsbnDoesntExists() {
         // cenário
         String isbn = "123";
 
         // execução
-        boolean exists = repository.existsByIsbn(isbn);
+        boolean exists = repository.findByIsbn(isbn).isPresent();
 
         // verificação
         assertThat(exists).isFalse();
@@ -107,4 +119,155 @@ class BookRepositoryTest {
         assertThat(deletedBook).isNull();
     }
 
+    @Test
+    @DisplayName("Deve impedir dois livros com o mesmo isbn")
+    void uniqueIsbnTest() {
+        // cenário
+        entityManager.persistAndFlush(createNewBook("123"));
+
+        // execução
+        Throwable exception = catchThrowable(() -> repository.saveAndFlush(createNewBook("123")));
+
+        // verificação
+        assertThat(exception).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(exception.getCause()).isInstanceOf(ConstraintViolationException.class);
+        assertThat(((ConstraintViolationException) exception.getCause()).getConstraintName()).containsIgnoringCase("uk_book_isbn");
+    }
+
+    @Test
+    @DisplayName("Deve buscar os livros seguintes ao último id informado")
+    void findAllAfterTest() {
+        // cenário
+        Book first = entityManager.persist(createNewBook("1"));
+        Book second = entityManager.persist(createNewBook("2"));
+        Book third = entityManager.persist(createNewBook("3"));
+        Book other = entityManager.persist(Book.builder().author("Outro").title("Outro").isbn("4").build());
+
+        ExampleMatcher matching = ExampleMatcher.matching()
+                .withIgnoreCase()
+                .withIgnoreNullValues()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING);
+        Example<Book> example = Example.of(Book.builder().title("titulo").build(), matching);
+
+        // execução
+        List<Book> firstPage = repository.findAllAfter(example, null, 2);
+        List<Book> secondPage = repository.findAllAfter(example, firstPage.get(1).getId(), 2);
+
+        // verificação
+        assertThat(firstPage).containsExactly(first, second);
+        assertThat(secondPage).containsExactly(third).doesNotContain(other);
+    }
+
+    @Test
+    @DisplayName("Deve obter apenas a versão de um livro")
+    void findVersionByIdTest() {
+        // cenário
+        Book book = entityManager.persistAndFlush(createNewBook("123"));
+
+        // execução
+        Optional<Long> version = repository.findVersionById(book.getId());
+
+        // verificação
+        assertThat(version).contains(0L);
+        assertThat(repository.findVersionById(book.getId() + 1)).isNotPresent();
+    }
+
+    @Test
+    @DisplayName("Deve projetar um livro direto em resumo com sua versão")
+    void findSummaryByIdTest() {
+        // cenário
+        Book book = entityManager.persistAndFlush(createNewBook("123"));
+
+        // execução
+        Optional<BookSummary> dto = repository.findSummaryById(book.getId());
+
+        // verificação
+        assertThat(dto).isPresent();
+        assertThat(dto.get().getIsbn()).isEqualTo("123");
+        assertThat(dto.get().getVersion()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve projetar os livros filtrados por exemplo direto em resumo")
+    void findSummariesTest() {
+        // cenário
+        entityManager.persist(createNewBook("123"));
+        entityManager.persist(Book.builder().author("Outro").title("Outro").isbn("456").build());
+
+        ExampleMatcher matching = ExampleMatcher.matching()
+                .withIgnoreCase()
+                .withIgnoreNullValues()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING);
+
+        // execução
+        Page<BookSummary> result = repository.findSummaries(Example.of(Book.builder().author("aut").build(), matching), PageRequest.of(0, 10));
+
+        // verificação
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent().get(0).getIsbn()).isEqualTo("123");
+    }
+
+    @Test
+    @DisplayName("Deve marcar e liberar o empréstimo ativo do livro")
+    void markAndReleaseLoanTest() {
+        // cenário
+        Book book = entityManager.persistAndFlush(createNewBook("123"));
+
+        // execução
+        repository.markLoaned(book.getId(), 10L);
+        boolean loaned = repository.existsByIdAndActiveLoanIdIsNotNull(book.getId());
+        int releasedByOtherLoan = repository.releaseLoan(book.getId(), 11L);
+        int released = repository.releaseLoan(book.getId(), 10L);
+
+        // verificação
+        assertThat(loaned).isTrue();
+        assertThat(releasedByOtherLoan).isZero();
+        assertThat(released).isOne();
+        assertThat(repository.existsByIdAndActiveLoanIdIsNotNull(book.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve preencher apenas o empréstimo ativo ausente sem limpar os já definidos")
+    void fillMissingActiveLoansTest() {
+        // cenário
+        Book loaned = entityManager.persist(createNewBook("123"));
+        Book returned = entityManager.persist(createNewBook("456"));
+        Book pointed = entityManager.persist(createNewBook("789"));
+        Loan openLoan = entityManager.persist(Loan.builder().book(loaned).customer("Fulano").build());
+        Loan returnedLoan = entityManager.persist(Loan.builder().book(returned).customer("Ciclano").build());
+        returnedLoan.setReturned(true);
+        Loan pointedLoan = entityManager.persist(Loan.builder().book(pointed).customer("Beltrano").build());
+        pointedLoan.setReturned(true);
+        entityManager.flush();
+        repository.markLoaned(pointed.getId(), pointedLoan.getId());
+
+        // execução
+        int updated = repository.fillMissingActiveLoans();
+
+        // verificação
+        assertThat(updated).isOne();
+        assertThat(repository.findById(loaned.getId()).get().getActiveLoanId()).isEqualTo(openLoan.getId());
+        assertThat(repository.findById(returned.getId()).get().getActiveLoanId()).isNull();
+        assertThat(repository.findById(pointed.getId()).get().getActiveLoanId()).isEqualTo(pointedLoan.getId());
+        assertThat(repository.findInconsistentActiveLoans()).containsExactly(pointed.getId());
+    }
+
+    @Test
+    @DisplayName("Deve listar apenas os livros ainda fora do índice de busca")
+    void findUnindexedTest() {
+        // cenário
+        Book indexed = entityManager.persist(createNewBook("123"));
+        entityManager.persist(new BookToken(new BookTokenId("titulo", indexed.getId())));
+        Book missing = entityManager.persist(createNewBook("456"));
+        Book next = entityManager.persist(createNewBook("789"));
+        entityManager.flush();
+
+        // execução
+        List<Book> page = repository.findUnindexed(0L, PageRequest.of(0, 1));
+        List<Book> after = repository.findUnindexed(missing.getId(), PageRequest.of(0, 10));
+
+        // verificação
+        assertThat(page).extracting(Book::getId).containsExactly(missing.getId());
+        assertThat(after).extracting(Book::getId).containsExactly(next.getId());
+    }
 }
@@ -0,0 +1,62 @@
+package com.leandro.repository;
+
+import com.leandro.model.entity.BookToken;
+import com.leandro.model.entity.BookTokenId;
+import com.leandro.model.repository.BookTokenRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class BookTokenRepositoryTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    BookTokenRepository repository;
+
+    private void index(Long bookId, String... tokens) {
+        for (String token : tokens) {
+            entityManager.persist(new BookToken(new BookTokenId(token, bookId)));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ordenar os livros pela quantidade de termos encontrados")
+    void searchBookIdsTest() {
+        index(1L, "dom", "quixote", "cervantes");
+        index(2L, "dom", "casmurro", "machado");
+        index(3L, "memorias", "postumas", "machado");
+
+        Page<Long> result = repository.searchBookIds(Arrays.asList("dom", "machado"), PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).containsExactly(2L, 1L, 3L);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve remover os termos de um livro")
+    void deleteByBookIdTest() {
+        index(1L, "dom", "quixote");
+        index(2L, "dom", "casmurro");
+
+        repository.deleteByBookId(1L);
+
+        Page<Long> result = repository.searchBookIds(Arrays.asList("dom"), PageRequest.of(0, 10));
+        assertThat(result.getContent()).containsExactly(2L);
+    }
+}
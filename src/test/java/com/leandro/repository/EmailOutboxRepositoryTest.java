@@ -0,0 +1,81 @@
+package com.leandro.repository;
+
+import com.leandro.model.entity.EmailOutbox;
+import com.leandro.model.entity.EmailOutboxStatus;
+import com.leandro.model.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class EmailOutboxRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 6, 10, 8, 0);
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    EmailOutboxRepository repository;
+
+    private Long persistEmail(EmailOutboxStatus status, String claimToken, LocalDateTime sentAt) {
+        EmailOutbox email = entityManager.persist(EmailOutbox.builder().subject("Assunto").body("Mensagem")
+                .recipient("a@email.com").status(status).claimToken(claimToken).claimedAt(NOW.minusMinutes(1))
+                .nextAttemptAt(NOW.minusMinutes(5)).sentAt(sentAt).build());
+        entityManager.flush();
+        entityManager.clear();
+        return email.getId();
+    }
+
+    @Test
+    @DisplayName("Deve marcar como enviado apenas o email ainda reservado pelo mesmo token")
+    void markSentTest() {
+        Long id = persistEmail(EmailOutboxStatus.SENDING, "token-1", null);
+
+        assertThat(repository.markSent(Collections.singletonList(id), "token-2", NOW)).isZero();
+        assertThat(repository.markSent(Collections.singletonList(id), "token-1", NOW)).isOne();
+        assertThat(repository.markSent(Collections.singletonList(id), "token-1", NOW)).isZero();
+        entityManager.clear();
+
+        EmailOutbox email = repository.findById(id).get();
+        assertThat(email.getStatus()).isEqualTo(EmailOutboxStatus.SENT);
+        assertThat(email.getAttempts()).isOne();
+    }
+
+    @Test
+    @DisplayName("Não deve reagendar um email cuja reserva já voltou para a fila")
+    void markFailedTest() {
+        Long id = persistEmail(EmailOutboxStatus.PENDING, "token-1", null);
+
+        assertThat(repository.markFailed(id, "token-1", EmailOutboxStatus.PENDING, NOW.plusMinutes(1), "erro")).isZero();
+        entityManager.clear();
+
+        assertThat(repository.findById(id).get().getAttempts()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve remover apenas os emails enviados antes do limite de retenção")
+    void deleteSentBeforeTest() {
+        Long old = persistEmail(EmailOutboxStatus.SENT, "token-1", NOW.minusDays(8));
+        Long recent = persistEmail(EmailOutboxStatus.SENT, "token-1", NOW.minusDays(1));
+        Long pending = persistEmail(EmailOutboxStatus.PENDING, null, null);
+
+        assertThat(repository.deleteSentBefore(NOW.minusDays(7))).isOne();
+
+        assertThat(repository.existsById(old)).isFalse();
+        assertThat(repository.existsById(recent)).isTrue();
+        assertThat(repository.existsById(pending)).isTrue();
+    }
+}
@@ -0,0 +1,60 @@
+package com.leandro.repository;
+
+import com.leandro.model.entity.JobLease;
+import com.leandro.model.repository.JobLeaseRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class JobLeaseRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 6, 10, 8, 0);
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    JobLeaseRepository repository;
+
+    private void persistLease(String owner, LocalDateTime lockedUntil) {
+        entityManager.persist(JobLease.builder().name("job").owner(owner).lockedAt(NOW.minusHours(1)).lockedUntil(lockedUntil).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Deve adquirir o lease apenas depois que a trava anterior expirar")
+    void acquireTest() {
+        persistLease("no-1", NOW.plusMinutes(5));
+
+        assertThat(repository.acquire("job", "no-2", NOW, NOW.plusMinutes(30))).isZero();
+        assertThat(repository.acquire("job", "no-2", NOW.plusMinutes(5), NOW.plusMinutes(35))).isOne();
+        entityManager.clear();
+
+        JobLease lease = repository.findById("job").get();
+        assertThat(lease.getOwner()).isEqualTo("no-2");
+        assertThat(lease.getLockedUntil()).isEqualTo(NOW.plusMinutes(35));
+    }
+
+    @Test
+    @DisplayName("Deve liberar o lease apenas para o nó que o detém")
+    void releaseTest() {
+        persistLease("no-1", NOW.plusMinutes(30));
+
+        assertThat(repository.release("job", "no-2", NOW)).isZero();
+        assertThat(repository.release("job", "no-1", NOW)).isOne();
+        assertThat(repository.acquire("job", "no-2", NOW, NOW.plusMinutes(30))).isOne();
+    }
+}
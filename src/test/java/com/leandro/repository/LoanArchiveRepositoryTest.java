@@ -0,0 +1,65 @@
+package com.leandro.repository;
+
+import com.leandro.model.entity.Book;
+import com.leandro.model.entity.Loan;
+import com.leandro.model.projection.LoanSummary;
+import com.leandro.model.repository.LoanArchiveRepository;
+import com.leandro.model.repository.LoanRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class LoanArchiveRepositoryTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    LoanArchiveRepository archiveRepository;
+
+    @Test
+    @DisplayName("Deve mover para o arquivo apenas os empréstimos devolvidos antes do corte")
+    void archiveReturnedLoansTest() {
+        LocalDate today = LocalDate.now();
+        Book book = entityManager.persist(Book.builder().isbn("123").title("Titulo").author("Autor").build());
+        Loan old = entityManager.persist(Loan.builder().book(book).customer("Fulano").dueDate(today.minusDays(100)).build());
+        old.setReturned(true);
+        Loan recent = entityManager.persist(Loan.builder().book(book).customer("Ciclano").dueDate(today.minusDays(1)).build());
+        recent.setReturned(true);
+        Loan open = entityManager.persist(Loan.builder().book(book).customer("Beltrano").dueDate(today.minusDays(100)).build());
+        entityManager.flush();
+
+        List<Long> ids = loanRepository.findArchivableIds(today.minusDays(90), PageRequest.of(0, 10));
+        int copied = archiveRepository.copyFromLoans(ids);
+        int deleted = loanRepository.deleteReturned(ids);
+
+        assertThat(ids).containsExactly(old.getId());
+        assertThat(copied).isOne();
+        assertThat(deleted).isOne();
+        assertThat(loanRepository.findById(old.getId())).isEmpty();
+        assertThat(loanRepository.findById(open.getId())).isPresent();
+
+        Page<LoanSummary> archived = archiveRepository.findSummariesByBookId(book.getId(), PageRequest.of(0, 10));
+        assertThat(archived.getTotalElements()).isOne();
+        assertThat(archived.getContent().get(0).getCustomer()).isEqualTo("Fulano");
+        assertThat(archived.getContent().get(0).getBookIsbn()).isEqualTo("123");
+    }
+}
@@ -0,0 +1,131 @@
+package com.leandro.repository;
+
+import com.leandro.model.entity.Book;
+import com.leandro.model.entity.Loan;
+import com.leandro.model.projection.LoanSummary;
+import com.leandro.model.repository.LoanRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class LoanQueryCountTest {
+
+    private static final int LOANS = 150;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    LoanRepository repository;
+
+    private Statistics statistics;
+    private Book firstBook;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < LOANS; i++) {
+            Book book = entityManager.persist(Book.builder().isbn("isbn-" + i).title("Titulo " + i).author("Autor").build());
+            if (firstBook == null) {
+                firstBook = book;
+            }
+            entityManager.persist(Loan.builder().book(book).customer("Cliente " + i).customerEmail("cliente@email.com").build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private Example<Loan> exampleOf(Loan loan) {
+        ExampleMatcher matching = ExampleMatcher.matching()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                .withIgnoreNullValues()
+                .withIgnoreCase();
+        return Example.of(loan, matching);
+    }
+
+    private void touchBooks(List<Loan> loans) {
+        loans.forEach(loan -> assertThat(loan.getBook().getTitle()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("Deve filtrar empréstimos por exemplo com o livro em uma única consulta mais a contagem")
+    void findAllByExampleTest() {
+        Page<Loan> result = repository.findAll(exampleOf(Loan.builder().customer("cliente").build()), PageRequest.of(0, 100));
+        touchBooks(result.getContent());
+
+        assertThat(result.getContent()).hasSize(100);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve filtrar empréstimos pelo isbn do livro sem consultas extras por livro")
+    void findAllByBookIsbnTest() {
+        Loan filter = Loan.builder().book(Book.builder().isbn("isbn-1").build()).build();
+
+        Page<Loan> result = repository.findAll(exampleOf(filter), PageRequest.of(0, 50));
+        touchBooks(result.getContent());
+
+        assertThat(result.getContent()).hasSize(50);
+        assertThat(result.getTotalElements()).isEqualTo(61);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve projetar a página de empréstimos em duas consultas")
+    void findSummariesTest() {
+        Page<LoanSummary> result = repository.findSummaries(exampleOf(Loan.builder().customer("cliente").build()), Collections.emptySet(), PageRequest.of(0, 100));
+
+        assertThat(result.getContent()).hasSize(100);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve buscar fatias e cursores de empréstimos com o livro em uma única consulta")
+    void sliceAndCursorTest() {
+        Slice<Loan> slice = repository.findSlice(exampleOf(new Loan()), Collections.emptySet(), PageRequest.of(0, 100, Sort.by("id")));
+        touchBooks(slice.getContent());
+        List<Loan> after = repository.findAllAfter(exampleOf(new Loan()), Collections.emptySet(), null, 101);
+        touchBooks(after);
+
+        assertThat(slice.getContent()).hasSize(100);
+        assertThat(after).hasSize(101);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve buscar os empréstimos de um livro e um empréstimo pelo id com o livro carregado")
+    void findByBookAndByIdTest() {
+        Page<Loan> byBook = repository.findByBook(firstBook, PageRequest.of(0, 100));
+        touchBooks(byBook.getContent());
+        entityManager.clear();
+        Loan loan = repository.findById(byBook.getContent().get(0).getId()).get();
+        assertThat(loan.getBook().getTitle()).isNotNull();
+
+        assertThat(byBook.getContent()).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -3,7 +3,14 @@ package com.leandro.repository;
 import com.leandro.api.dto.LoanFilterDTO;
 import com.leandro.model.entity.Book;
 import com.leandro.model.entity.Loan;
+import com.leandro.model.entity.LoanCustomerGram;
+import com.leandro.model.entity.LoanCustomerGramId;
+import com.leandro.model.projection.LateLoanProjection;
+import com.leandro.model.projection.LoanCustomer;
+import com.leandro.model.projection.LoanReturnState;
+import com.leandro.model.projection.LoanSummary;
 import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.support.CustomerGrams;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,11 +21,18 @@ import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,21 +47,6 @@ class LoanRepositoryTest {
     @Autowired
     LoanRepository repository;
 
-    @Test
-    @DisplayName("Deve verificar se existe empréstimo não devolvido para o livro")
-    void existsByBookAndNotReturnedTest() {
-
-        Book book = Book.builder().isbn("123").author("Author").title("Title").build();
-        entityManager.persist(book);
-
-        Loan loan = Loan.builder().book(book).customer("Leandro").build();
-        entityManager.persist(loan);
-
-        boolean exists = repository.existsByBookAndNotReturned(loan.getBook());
-
-        assertThat(exists).isTrue();
-    }
-
     @Test
     @DisplayName("Deve achar todos os empréstimos pelo customer e isbn")
     void FindAllWithFilterTest() {
@@ -95,17 +94,234 @@ class LoanRepositoryTest {
     }
 
     @Test
-    @DisplayName("Deve encontrar todos os empréstimos atrasados")
-    void findAllLateLoansTest() {
-        Loan loanToBeFound = Loan.builder().returned(false).build();
-        Loan loanToNotBeFound = Loan.builder().returned(false).build();
+    @DisplayName("Deve encontrar os lembretes de atraso pendentes em blocos ordenados pela data do lembrete")
+    void findDueRemindersTest() {
+        LocalDate today = LocalDate.now();
+        Book book = entityManager.persist(Book.builder().isbn("123").title("Titulo").build());
+        Loan olderLate = entityManager.persist(Loan.builder().book(book).customerEmail("a@email.com")
+                .dueDate(today.minusDays(5)).nextNotificationDate(today.minusDays(4)).build());
+        Loan late = entityManager.persist(Loan.builder().book(book).customerEmail("b@email.com")
+                .dueDate(today.minusDays(1)).nextNotificationDate(today).build());
+        entityManager.persist(Loan.builder().book(book).customerEmail("c@email.com")
+                .dueDate(today).nextNotificationDate(today.plusDays(1)).build());
+        entityManager.persist(Loan.builder().book(book).customerEmail("e@email.com")
+                .dueDate(today.minusDays(8)).nextNotificationDate(today.plusDays(2)).build());
+        Loan returnedLate = entityManager.persist(Loan.builder().book(book).customerEmail("d@email.com")
+                .dueDate(today.minusDays(3)).nextNotificationDate(today.minusDays(2)).build());
+        returnedLate.setReturned(true);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<LateLoanProjection> firstChunk = repository.findDueReminders(today, LocalDate.of(1970, 1, 1), 0L, PageRequest.of(0, 1));
+        LateLoanProjection last = firstChunk.get(0);
+        List<LateLoanProjection> secondChunk = repository.findDueReminders(today, last.getNextNotificationDate(), last.getId(), PageRequest.of(0, 1));
+        List<LateLoanProjection> thirdChunk = repository.findDueReminders(today, secondChunk.get(0).getNextNotificationDate(), secondChunk.get(0).getId(), PageRequest.of(0, 1));
+
+        assertThat(firstChunk).extracting(LateLoanProjection::getId).containsExactly(olderLate.getId());
+        assertThat(last.getBookTitle()).isEqualTo("Titulo");
+        assertThat(last.getCustomerEmail()).isEqualTo("a@email.com");
+        assertThat(secondChunk).extracting(LateLoanProjection::getId).containsExactly(late.getId());
+        assertThat(thirdChunk).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve registrar o envio do lembrete e encerrar os lembretes ao atingir o limite")
+    void markNotifiedTest() {
+        LocalDate today = LocalDate.now();
+        Book book = entityManager.persist(Book.builder().isbn("123").title("Titulo").build());
+        Loan first = entityManager.persist(Loan.builder().book(book).dueDate(today.minusDays(2)).nextNotificationDate(today.minusDays(1)).build());
+        Loan second = entityManager.persist(Loan.builder().book(book).dueDate(today.minusDays(2)).nextNotificationDate(today.minusDays(1)).build());
+        entityManager.flush();
+
+        repository.markNotified(Arrays.asList(first.getId(), second.getId()), LocalDateTime.now(), today.plusDays(3));
+        repository.markNotified(Collections.singletonList(second.getId()), LocalDateTime.now(), today.plusDays(3));
+        int stopped = repository.stopReminders(Arrays.asList(first.getId(), second.getId()), 2);
+        entityManager.clear();
+
+        Loan reloadedFirst = repository.findById(first.getId()).get();
+        Loan reloadedSecond = repository.findById(second.getId()).get();
+        assertThat(stopped).isOne();
+        assertThat(reloadedFirst.getNotificationCount()).isOne();
+        assertThat(reloadedFirst.getLastNotifiedAt()).isNotNull();
+        assertThat(reloadedFirst.getNextNotificationDate()).isEqualTo(today.plusDays(3));
+        assertThat(reloadedSecond.getNotificationCount()).isEqualTo(2);
+        assertThat(reloadedSecond.getNextNotificationDate()).isNull();
+        assertThat(repository.findDueReminders(today.plusDays(10), LocalDate.of(1970, 1, 1), 0L, PageRequest.of(0, 10)))
+                .extracting(LateLoanProjection::getId).containsExactly(first.getId());
+    }
+
+    @Test
+    @DisplayName("Deve preencher a data de devolução dos empréstimos antigos a partir da data do empréstimo")
+    void backfillDueDateTest() {
+        Loan loan = entityManager.persist(Loan.builder().customer("Fulano").build());
+        entityManager.flush();
+
+        List<LocalDate> loanDates = repository.findLoanDatesWithoutDueDate();
+        int updated = repository.backfillDueDate(loanDates.get(0), loanDates.get(0).plusDays(4));
+
+        assertThat(loanDates).containsExactly(LocalDate.now());
+        assertThat(updated).isOne();
+        assertThat(repository.findById(loan.getId()).get().getDueDate()).isEqualTo(LocalDate.now().plusDays(4));
+    }
+
+    @Test
+    @DisplayName("Deve retornar uma fatia dos empréstimos de um livro indicando se há próxima")
+    void findSliceByBookTest() {
+        Book book = Book.builder().isbn("123").build();
+        entityManager.persist(book);
+
+        entityManager.persist(Loan.builder().book(book).customer("Fulano").build());
+        entityManager.persist(Loan.builder().book(book).customer("Ciclano").build());
+
+        Slice<Loan> result = repository.findSliceByBook(book, PageRequest.of(0, 1));
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve filtrar empréstimos por exemplo retornando uma fatia")
+    void findSliceTest() {
+        Book book = Book.builder().isbn("123").build();
+        entityManager.persist(book);
+
+        Loan loan = Loan.builder().customer("Customer").book(book).build();
+        entityManager.persist(loan);
+        entityManager.persist(Loan.builder().customer("Fulano").book(book).build());
+
+        ExampleMatcher matching = ExampleMatcher.matching()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                .withIgnoreNullValues()
+                .withIgnoreCase();
+        Loan filter = Loan.builder().book(Book.builder().isbn("123").build()).customer("custom").build();
+
+        Slice<Loan> result = repository.findSlice(Example.of(filter, matching), Collections.emptySet(), PageRequest.of(0, 10, Sort.by("id")));
+
+        assertThat(result.getContent()).containsExactly(loan);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve projetar os empréstimos filtrados direto em resumo")
+    void findSummariesTest() {
+        Book book = Book.builder().isbn("123").title("Titulo").author("Autor").build();
+        entityManager.persist(book);
+
+        Loan loan = Loan.builder().customer("Customer").customerEmail("customer@email.com").book(book).build();
+        entityManager.persist(loan);
+        entityManager.persist(Loan.builder().customer("Fulano").book(book).build());
+
+        ExampleMatcher matching = ExampleMatcher.matching()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                .withIgnoreNullValues()
+                .withIgnoreCase();
+        Loan filter = Loan.builder().book(Book.builder().isbn("123").build()).customer("custom").build();
+
+        Page<LoanSummary> result = repository.findSummaries(Example.of(filter, matching), Collections.emptySet(), PageRequest.of(0, 10, Sort.by("id")));
+
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        LoanSummary summary = result.getContent().get(0);
+        assertThat(summary.getId()).isEqualTo(loan.getId());
+        assertThat(summary.getCustomerEmail()).isEqualTo("customer@email.com");
+        assertThat(summary.getBookId()).isEqualTo(book.getId());
+        assertThat(summary.getBookTitle()).isEqualTo("Titulo");
+    }
+
+    @Test
+    @DisplayName("Deve projetar os empréstimos de um livro direto em resumo")
+    void findSummariesByBookIdTest() {
+        Book book = Book.builder().isbn("123").title("Titulo").author("Autor").build();
+        entityManager.persist(book);
+
+        entityManager.persist(Loan.builder().book(book).customer("Fulano").build());
+        entityManager.persist(Loan.builder().book(book).customer("Ciclano").build());
+
+        Page<LoanSummary> result = repository.findSummariesByBookId(book.getId(), PageRequest.of(0, 1));
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent().get(0).getBookIsbn()).isEqualTo("123");
+    }
+
+    @Test
+    @DisplayName("Deve marcar como devolvidos apenas os empréstimos abertos informados")
+    void markReturnedTest() {
+        Book book = Book.builder().isbn("123").build();
+        entityManager.persist(book);
 
-        entityManager.persist(loanToBeFound);
-        loanToBeFound.setLoanDate(LocalDate.now().minusDays(10));
-        entityManager.persist(loanToNotBeFound);
+        Loan open = entityManager.persist(Loan.builder().book(book).customer("Fulano").build());
+        Loan returned = entityManager.persist(Loan.builder().book(book).customer("Ciclano").build());
+        returned.setReturned(true);
+        entityManager.flush();
 
-        List<Loan> lateLoans = repository.findAllByLoanDateBeforeAndReturnedIsFalse(LocalDate.now().minusDays(4));
+        List<LoanReturnState> states = repository.findReturnStates(Arrays.asList(open.getId(), returned.getId(), -1L));
+        List<Long> locked = repository.lockOpenLoanIds(Arrays.asList(open.getId(), returned.getId()));
+        int updated = repository.markReturned(Arrays.asList(open.getId(), returned.getId()));
 
-        assertThat(lateLoans).hasSize(1).contains(loanToBeFound);
+        assertThat(states).hasSize(2);
+        assertThat(locked).containsExactly(open.getId());
+        assertThat(states).allMatch(state -> book.getId().equals(state.getBookId()));
+        assertThat(updated).isOne();
+        Loan reloaded = repository.findById(open.getId()).get();
+        assertThat(reloaded.getReturned()).isTrue();
+        assertThat(reloaded.getVersion()).isOne();
+    }
+
+    private Loan persistIndexed(Book book, String customer, String email) {
+        Loan loan = entityManager.persist(Loan.builder().book(book).customer(customer).customerEmail(email).build());
+        CustomerGrams.of(customer).forEach(gram -> entityManager.persist(new LoanCustomerGram(new LoanCustomerGramId(gram, loan.getId()))));
+        return loan;
+    }
+
+    @Test
+    @DisplayName("Deve filtrar empréstimos por trecho do nome do cliente usando o índice de trigramas")
+    void findSummariesByCustomerGramsTest() {
+        Book book = entityManager.persist(Book.builder().isbn("123").title("Titulo").author("Autor").build());
+        Loan silva = persistIndexed(book, "João Silva", "joao@email.com");
+        persistIndexed(book, "Maria Souza", "maria@email.com");
+        persistIndexed(book, "Vali Sil", "vali@email.com");
+
+        ExampleMatcher matching = ExampleMatcher.matching()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                .withIgnoreNullValues()
+                .withIgnoreCase();
+        Set<String> grams = CustomerGrams.of("o silv");
+
+        Page<LoanSummary> result = repository.findSummaries(Example.of(Loan.builder().customer("o silv").build(), matching), grams, PageRequest.of(0, 10));
+
+        assertThat(result.getContent().stream().map(LoanSummary::getId).collect(Collectors.toList())).containsExactly(silva.getId());
+        assertThat(result.getTotalElements()).isOne();
+    }
+
+    @Test
+    @DisplayName("Deve listar apenas os empréstimos ainda fora do índice de clientes")
+    void findUnindexedCustomersTest() {
+        Book book = entityManager.persist(Book.builder().isbn("123").title("Titulo").author("Autor").build());
+        persistIndexed(book, "João Silva", "joao@email.com");
+        Loan missing = entityManager.persist(Loan.builder().book(book).customer("Maria Souza").build());
+        Loan next = entityManager.persist(Loan.builder().book(book).customer("Ana Lima").build());
+        entityManager.flush();
+
+        List<LoanCustomer> page = repository.findUnindexedCustomers(0L, PageRequest.of(0, 1));
+        List<LoanCustomer> after = repository.findUnindexedCustomers(missing.getId(), PageRequest.of(0, 10));
+
+        assertThat(page).extracting(LoanCustomer::getId).containsExactly(missing.getId());
+        assertThat(page.get(0).getCustomer()).isEqualTo("Maria Souza");
+        assertThat(after).extracting(LoanCustomer::getId).containsExactly(next.getId());
+    }
+
+    @Test
+    @DisplayName("Deve listar os empréstimos de um cliente pelo email")
+    void findSummariesByCustomerEmailTest() {
+        Book book = entityManager.persist(Book.builder().isbn("123").title("Titulo").author("Autor").build());
+        entityManager.persist(Loan.builder().book(book).customer("Fulano").customerEmail("fulano@email.com").build());
+        entityManager.persist(Loan.builder().book(book).customer("Fulano").customerEmail("fulano@email.com").build());
+        entityManager.persist(Loan.builder().book(book).customer("Ciclano").customerEmail("ciclano@email.com").build());
+
+        Page<LoanSummary> result = repository.findSummariesByCustomerEmail("fulano@email.com", PageRequest.of(0, 1, Sort.by("id")));
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent().get(0).getCustomer()).isEqualTo("Fulano");
     }
 }
@@ -0,0 +1,123 @@
+package com.leandro.repository;
+
+import com.leandro.model.entity.Book;
+import com.leandro.model.entity.BookLoanStats;
+import com.leandro.model.entity.Loan;
+import com.leandro.model.entity.LoanTotals;
+import com.leandro.model.projection.LoanCounts;
+import com.leandro.model.repository.BookLoanStatsRepository;
+import com.leandro.model.repository.CustomerLoanStatsRepository;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.model.repository.LoanTotalsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class LoanStatsRepositoryTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    BookLoanStatsRepository bookStatsRepository;
+
+    @Autowired
+    CustomerLoanStatsRepository customerStatsRepository;
+
+    @Autowired
+    LoanTotalsRepository totalsRepository;
+
+    private Book persistBook(String isbn) {
+        return entityManager.persist(Book.builder().isbn(isbn).title("Titulo").author("Autor").build());
+    }
+
+    private Loan persistLoan(Book book, String email, boolean returned) {
+        Loan loan = entityManager.persist(Loan.builder().book(book).customer("Cliente").customerEmail(email).build());
+        if (returned) {
+            loan.setReturned(true);
+        }
+        return loan;
+    }
+
+    @Test
+    @DisplayName("Deve calcular as estatísticas a partir dos empréstimos existentes")
+    void backfillTest() {
+        Book first = persistBook("123");
+        Book second = persistBook("456");
+        persistLoan(first, "a@email.com", true);
+        persistLoan(first, "b@email.com", false);
+        persistLoan(second, "a@email.com", false);
+        entityManager.flush();
+
+        assertThat(bookStatsRepository.backfill()).isEqualTo(2);
+        assertThat(customerStatsRepository.backfill()).isEqualTo(2);
+        LoanCounts counts = loanRepository.countLoans();
+
+        BookLoanStats firstStats = bookStatsRepository.findById(first.getId()).get();
+        assertThat(firstStats.getLoans()).isEqualTo(2);
+        assertThat(firstStats.getOpenLoans()).isEqualTo(1);
+        assertThat(customerStatsRepository.findById("a@email.com").get().getLoans()).isEqualTo(2);
+        assertThat(customerStatsRepository.findById("a@email.com").get().getOpenLoans()).isEqualTo(1);
+        assertThat(counts.getLoans()).isEqualTo(3);
+        assertThat(counts.getOpenLoans()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve incrementar e decrementar os contadores sem ficar negativo")
+    void incrementAndDecrementTest() {
+        entityManager.persist(new BookLoanStats(1L, 0, 0));
+
+        assertThat(bookStatsRepository.incrementLoans(1L)).isEqualTo(1);
+        assertThat(bookStatsRepository.decrementOpenLoans(1L)).isEqualTo(1);
+        assertThat(bookStatsRepository.decrementOpenLoans(1L)).isZero();
+        assertThat(bookStatsRepository.incrementLoans(2L)).isZero();
+
+        entityManager.clear();
+        BookLoanStats stats = bookStatsRepository.findById(1L).get();
+        assertThat(stats.getLoans()).isEqualTo(1);
+        assertThat(stats.getOpenLoans()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve somar os contadores globais de todos os slots")
+    void sumTotalsTest() {
+        entityManager.persist(new LoanTotals(0, 10, 4));
+        entityManager.persist(new LoanTotals(1, 5, -1));
+        totalsRepository.incrementLoans(1);
+        entityManager.clear();
+
+        LoanCounts counts = totalsRepository.sum();
+
+        assertThat(counts.getLoans()).isEqualTo(16);
+        assertThat(counts.getOpenLoans()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Deve listar os livros mais emprestados")
+    void findTopTest() {
+        entityManager.persist(new BookLoanStats(1L, 3, 0));
+        entityManager.persist(new BookLoanStats(2L, 7, 1));
+        entityManager.persist(new BookLoanStats(3L, 5, 0));
+
+        List<BookLoanStats> top = bookStatsRepository.findTop(PageRequest.of(0, 2));
+
+        assertThat(top.stream().map(BookLoanStats::getBookId).collect(Collectors.toList())).containsExactly(2L, 3L);
+    }
+}
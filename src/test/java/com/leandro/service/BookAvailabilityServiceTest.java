@@ -0,0 +1,52 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.BookAvailabilityDTO;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.service.impl.BookAvailabilityServiceImpl;
+import com.leandro.service.support.LoanedBooksIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookAvailabilityServiceTest {
+
+    BookRepository bookRepository;
+    LoanedBooksIndex loanedBooks;
+    BookAvailabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = Mockito.mock(BookRepository.class);
+        loanedBooks = Mockito.mock(LoanedBooksIndex.class);
+        service = new BookAvailabilityServiceImpl(bookRepository, loanedBooks);
+    }
+
+    @Test
+    @DisplayName("Deve informar como indisponíveis os ids de livros inexistentes ou emprestados")
+    void checkIdsTest() {
+        Mockito.when(bookRepository.findExistingIds(new HashSet<>(Arrays.asList(1L, 2L, 3L)))).thenReturn(Arrays.asList(1L, 2L));
+        Mockito.when(loanedBooks.isLoaned(2L)).thenReturn(true);
+
+        List<BookAvailabilityDTO> result = service.check(Arrays.asList(1L, 2L, 3L), null);
+
+        assertThat(result).extracting(BookAvailabilityDTO::getId).containsExactly(1L, 2L, 3L);
+        assertThat(result).extracting(BookAvailabilityDTO::getAvailable).containsExactly(true, false, false);
+    }
+
+    @Test
+    @DisplayName("Não deve consultar a base quando nenhum id for informado")
+    void checkWithoutIdsTest() {
+        List<BookAvailabilityDTO> result = service.check(Collections.emptyList(), Collections.emptyList());
+
+        assertThat(result).isEmpty();
+        Mockito.verifyNoInteractions(bookRepository);
+    }
+}
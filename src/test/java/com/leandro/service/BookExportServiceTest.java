@@ -0,0 +1,69 @@
+package com.leandro.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leandro.api.mapper.BookMapper;
+import com.leandro.model.entity.Book;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.service.impl.BookExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class BookExportServiceTest {
+
+    BookExportService service;
+
+    @MockBean
+    BookRepository repository;
+
+    EntityManager entityManager = Mockito.mock(EntityManager.class);
+
+    Book book = Book.builder().id(1L).title("Dom Casmurro").author("Machado, de Assis").isbn("123").build();
+
+    @BeforeEach
+    void setUp() {
+        this.service = new BookExportServiceImpl(repository, new BookMapper(), new ObjectMapper());
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+    }
+
+    @Test
+    @DisplayName("Deve exportar os livros em ndjson desanexando cada entidade")
+    void exportNdjsonTest() throws Exception {
+        Mockito.when(repository.streamAll()).thenReturn(Stream.of(book));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = service.export(ExportFormat.NDJSON, output);
+
+        assertThat(count).isEqualTo(1);
+        assertThat(output.toString(StandardCharsets.UTF_8.name()))
+                .isEqualTo("{\"id\":1,\"title\":\"Dom Casmurro\",\"author\":\"Machado, de Assis\",\"isbn\":\"123\"}\n");
+        Mockito.verify(entityManager).detach(book);
+    }
+
+    @Test
+    @DisplayName("Deve exportar os livros em csv escapando os campos")
+    void exportCsvTest() throws Exception {
+        Mockito.when(repository.streamAll()).thenReturn(Stream.of(book));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        service.export(ExportFormat.CSV, output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8.name()))
+                .isEqualTo("id,title,author,isbn\n1,Dom Casmurro,\"Machado, de Assis\",123\n");
+    }
+}
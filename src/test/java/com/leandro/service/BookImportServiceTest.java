@@ -0,0 +1,95 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.BookDTO;
+import com.leandro.api.dto.BookImportResultDTO;
+import com.leandro.api.exceptions.BussinesException;
+import com.leandro.api.mapper.BookMapper;
+import com.leandro.model.entity.Book;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.service.impl.BookImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.validation.Validation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class BookImportServiceTest {
+
+    BookImportService service;
+
+    @MockBean
+    BookService bookService;
+
+    @MockBean
+    BookRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        this.service = new BookImportServiceImpl(bookService, repository,
+                Validation.buildDefaultValidatorFactory().getValidator(), new BookMapper(), 2);
+    }
+
+    private BookDTO book(String isbn) {
+        return BookDTO.builder().isbn(isbn).title("Titulo").author("Autor").build();
+    }
+
+    @Test
+    @DisplayName("Deve importar os livros em lotes do tamanho configurado")
+    void importInChunksTest() {
+        List<BookDTO> books = Arrays.asList(book("1"), book("2"), book("3"));
+
+        BookImportResultDTO result = service.importBooks(books.iterator());
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isZero();
+        Mockito.verify(bookService, Mockito.times(2)).saveAll(Mockito.anyList());
+        Mockito.verify(bookService, Mockito.never()).save(Mockito.any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Deve reportar os itens inválidos, duplicados ou já cadastrados")
+    void reportItemErrorsTest() {
+        List<BookDTO> books = Arrays.asList(book("1"), new BookDTO(), book("1"), book("2"));
+        Mockito.when(repository.findExistingIsbns(Mockito.anyCollection())).thenReturn(Collections.singletonList("2"));
+        BookImportService singleChunkService = new BookImportServiceImpl(bookService, repository,
+                Validation.buildDefaultValidatorFactory().getValidator(), new BookMapper(), 10);
+
+        BookImportResultDTO result = singleChunkService.importBooks(books.iterator());
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting("index").containsExactly(1, 2, 3);
+        assertThat(result.getErrors().get(0).getErrors()).hasSize(3);
+        assertThat(result.getErrors().get(1).getErrors()).containsExactly("Isbn já cadastrado.");
+        assertThat(result.getErrors().get(2).getErrors()).containsExactly("Isbn já cadastrado.");
+    }
+
+    @Test
+    @DisplayName("Deve salvar item a item quando o lote violar a unicidade do isbn")
+    void fallbackToSingleInsertTest() {
+        List<BookDTO> books = Arrays.asList(book("1"), book("2"));
+        Mockito.when(bookService.saveAll(Mockito.anyList())).thenThrow(new DataIntegrityViolationException("uk_book_isbn"));
+        Mockito.when(bookService.save(Mockito.any(Book.class)))
+                .thenReturn(Book.builder().id(1L).isbn("1").build())
+                .thenThrow(new BussinesException("Isbn já cadastrado."));
+
+        BookImportResultDTO result = service.importBooks(books.iterator());
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors().get(0).getIsbn()).isEqualTo("2");
+    }
+}
@@ -0,0 +1,75 @@
+package com.leandro.service;
+
+import com.leandro.api.exceptions.BussinesException;
+import com.leandro.model.entity.Book;
+import com.leandro.model.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    BookService service;
+
+    @Autowired
+    BookRepository repository;
+
+    private String isbn = UUID.randomUUID().toString();
+
+    @AfterEach
+    void tearDown() {
+        repository.findByIsbn(isbn).ifPresent(repository::delete);
+    }
+
+    @Test
+    @DisplayName("Deve salvar apenas um livro quando houver cadastros simultâneos com o mesmo isbn")
+    void concurrentDuplicateIsbnTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    service.save(Book.builder().isbn(isbn).title("Titulo").author("Autor").build());
+                    return true;
+                } catch (BussinesException e) {
+                    assertThat(e).hasMessage("Isbn já cadastrado.");
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(created).isEqualTo(1);
+        assertThat(repository.findByIsbn(isbn)).isPresent();
+    }
+}
@@ -5,18 +5,27 @@ import com.leandro.model.entity.Book;
 import com.leandro.model.entity.Loan;
 import com.leandro.model.repository.BookRepository;
 import com.leandro.service.impl.BookServiceImpl;
+import com.leandro.service.support.BookSearchIndex;
+import com.leandro.service.support.IsbnCache;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.SQLException;
+import java.time.Clock;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,9 +41,12 @@ class BookServiceTest {
     @MockBean
     BookRepository repository;
 
+    @MockBean
+    BookSearchIndex searchIndex;
+
     @BeforeEach
     void setUp() {
-        this.service = new BookServiceImpl(repository);
+        this.service = new BookServiceImpl(repository, new IsbnCache(100, 600, Clock.systemUTC()), searchIndex);
     }
 
     private Book createValidBook() {
@@ -47,8 +59,7 @@ class BookServiceTest {
         // cenário
         Book book = createValidBook();
         Book repositoryBook = Book.builder().author("Autor").isbn("123").title("Titulo").id(1L).build();
-        Mockito.when(repository.existsByIsbn(Mockito.anyString())).thenReturn(false);
-        Mockito.when(repository.save(book)).thenReturn(repositoryBook);
+        Mockito.when(repository.saveAndFlush(book)).thenReturn(repositoryBook);
 
         // execução
         Book savedBook = service.save(book);
@@ -66,7 +77,8 @@ class BookServiceTest {
     void shouldNotSaveABookWithDuplicateIsbn() {
         // cenário
         Book book = createValidBook();
-        Mockito.when(repository.existsByIsbn(Mockito.anyString())).thenReturn(true);
+        Mockito.when(repository.saveAndFlush(book)).thenThrow(new DataIntegrityViolationException("uk_book_isbn",
+                new ConstraintViolationException("duplicado", new SQLException(), "PUBLIC.UK_BOOK_ISBN_INDEX_1")));
 
         // execução
         Throwable exception = Assertions.catchThrowable(() -> service.save(book));
@@ -75,8 +87,19 @@ class BookServiceTest {
         assertThat(exception)
                 .isInstanceOf(BussinesException.class)
                 .hasMessage("Isbn já cadastrado.");
+    }
 
-        Mockito.verify(repository, Mockito.never()).save(book);
+    @Test
+    @DisplayName("Deve propagar violações de integridade que não sejam de isbn duplicado")
+    void shouldRethrowOtherIntegrityViolations() {
+        Book book = createValidBook();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("fk_loan_book",
+                new ConstraintViolationException("violado", new SQLException(), "PUBLIC.FK_LOAN_BOOK"));
+        Mockito.when(repository.saveAndFlush(book)).thenThrow(violation);
+
+        Throwable exception = Assertions.catchThrowable(() -> service.save(book));
+
+        assertThat(exception).isSameAs(violation);
     }
 
     @Test
@@ -218,5 +241,101 @@ class BookServiceTest {
         Mockito.verify(repository, Mockito.times(1)).findByIsbn(isbn);
     }
 
+    @Test
+    @DisplayName("Deve obter um livro pelo isbn do cache na segunda consulta")
+    void getBookByIsbnFromCache() {
+        String isbn = "123";
+
+        Mockito.when(repository.findByIsbn(isbn)).thenReturn(Optional.of(Book.builder().id(1L).isbn(isbn).build()));
+
+        service.findByIsbn(isbn);
+        Optional<Book> book = service.findByIsbn(isbn);
+
+        assertThat(book).isPresent();
+        assertThat(book.get().getId()).isEqualTo(1L);
+
+        Mockito.verify(repository, Mockito.times(1)).findByIsbn(isbn);
+    }
+
+    @Test
+    @DisplayName("Deve remover o livro do cache ao deletar")
+    void deleteEvictsCachedBook() {
+        String isbn = "123";
+        Book book = Book.builder().id(1L).isbn(isbn).build();
+
+        Mockito.when(repository.findByIsbn(isbn)).thenReturn(Optional.of(book));
 
+        service.findByIsbn(isbn);
+        service.delete(book);
+        service.findByIsbn(isbn);
+
+        Mockito.verify(repository, Mockito.times(2)).findByIsbn(isbn);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o cache de isbn apenas após o commit da transação")
+    void cacheChangesOnlyAfterCommit() {
+        String isbn = "123";
+        Book book = Book.builder().id(1L).isbn(isbn).build();
+        Mockito.when(repository.saveAndFlush(book)).thenReturn(book);
+        Mockito.when(repository.findByIsbn(isbn)).thenReturn(Optional.of(book));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.save(book);
+            service.findByIsbn(isbn);
+            Mockito.verify(repository).findByIsbn(isbn);
+
+            service.delete(book);
+            service.findByIsbn(isbn);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.findByIsbn(isbn);
+
+        Mockito.verify(repository, Mockito.times(3)).findByIsbn(isbn);
+    }
+
+    @Test
+    @DisplayName("Não deve popular o cache de isbn ao importar livros em lote")
+    void saveAllDoesNotCacheBooks() {
+        String isbn = "123";
+        Book book = Book.builder().id(1L).isbn(isbn).build();
+
+        Mockito.when(repository.saveAll(Mockito.anyList())).thenReturn(Collections.singletonList(book));
+        Mockito.when(repository.findByIsbn(isbn)).thenReturn(Optional.of(book));
+
+        service.saveAll(Collections.singletonList(createValidBook()));
+        service.findByIsbn(isbn);
+
+        Mockito.verify(repository).findByIsbn(isbn);
+    }
+
+    @Test
+    @DisplayName("Deve buscar livros pelo índice mantendo a ordem de relevância")
+    void searchTest() {
+        Book first = Book.builder().id(2L).title("Dom Casmurro").build();
+        Book second = Book.builder().id(1L).title("Dom Quixote").build();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        Mockito.when(searchIndex.search("dom casmurro", pageRequest)).thenReturn(new PageImpl<>(Arrays.asList(2L, 1L), pageRequest, 2));
+        Mockito.when(repository.findAllById(Arrays.asList(2L, 1L))).thenReturn(Arrays.asList(second, first));
+
+        Page<Book> result = service.search("dom casmurro", pageRequest);
+
+        assertThat(result.getContent()).containsExactly(first, second);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve reindexar o livro ao atualizar")
+    void updateReindexTest() {
+        Book book = Book.builder().id(1L).isbn("123").title("Novo titulo").build();
+        Mockito.when(repository.save(book)).thenReturn(book);
+
+        service.update(book);
+
+        Mockito.verify(searchIndex, Mockito.times(1)).index(book);
+    }
 }
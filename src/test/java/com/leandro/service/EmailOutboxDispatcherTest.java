@@ -0,0 +1,158 @@
+package com.leandro.service;
+
+import com.leandro.model.entity.EmailOutbox;
+import com.leandro.model.entity.EmailOutboxStatus;
+import com.leandro.model.repository.EmailOutboxRepository;
+import com.leandro.service.support.EmailOutboxDispatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailOutboxDispatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 6, 10, 8, 0);
+
+    EmailOutboxRepository repository;
+    JavaMailSender mailSender;
+    EmailOutboxDispatcher dispatcher;
+    List<SimpleMailMessage[]> sent;
+    String token;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(EmailOutboxRepository.class);
+        mailSender = Mockito.mock(JavaMailSender.class);
+        sent = new ArrayList<>();
+        Mockito.doAnswer(invocation -> sent.add(Arrays.copyOf(invocation.getArguments(), invocation.getArguments().length, SimpleMailMessage[].class)))
+                .when(mailSender).send(Mockito.<SimpleMailMessage[]>any());
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        dispatcher = new EmailOutboxDispatcher(repository, mailSender, "mail@library-api.com", 4, 2, 3, 1000, 3000,
+                60000, Duration.ofDays(7), Runnable::run, clock);
+    }
+
+    private EmailOutbox email(Long id, String recipient, int attempts) {
+        return EmailOutbox.builder().id(id).subject("Assunto").body("Mensagem")
+                .recipient(recipient).status(EmailOutboxStatus.SENDING).attempts(attempts).build();
+    }
+
+    private void queue(EmailOutbox... emails) {
+        List<Long> ids = Arrays.stream(emails).map(EmailOutbox::getId).collect(Collectors.toList());
+        Mockito.when(repository.findDueIds(Mockito.eq(NOW), Mockito.any(Pageable.class))).thenReturn(ids);
+        Mockito.when(repository.claim(Mockito.eq(ids), Mockito.anyString(), Mockito.eq(NOW))).thenAnswer(invocation -> {
+            token = invocation.getArgument(1);
+            return ids.size();
+        });
+        Mockito.when(repository.findByClaimToken(Mockito.anyString())).thenReturn(Arrays.asList(emails));
+        Mockito.when(repository.markSent(Mockito.anyCollection(), Mockito.anyString(), Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).size());
+        Mockito.when(repository.markFailed(Mockito.anyLong(), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyString()))
+                .thenReturn(1);
+    }
+
+    @Test
+    @DisplayName("Deve enviar um email por destinatário em lotes e marcá-los como enviados")
+    void dispatchSendsClaimedEmailsInBatchesTest() {
+        queue(email(1L, "a@email.com", 0), email(2L, "b@email.com", 0), email(3L, "c@email.com", 0));
+
+        dispatcher.dispatch();
+
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(0)).hasSize(2);
+        assertThat(sent.get(0)[0].getTo()).containsExactly("a@email.com");
+        assertThat(sent.get(0)[1].getTo()).containsExactly("b@email.com");
+        assertThat(sent.get(1)[0].getFrom()).isEqualTo("mail@library-api.com");
+        Mockito.verify(repository).markSent(Arrays.asList(1L, 2L), token, NOW);
+        Mockito.verify(repository).markSent(Collections.singletonList(3L), token, NOW);
+        assertThat(dispatcher.stats().getSent()).isEqualTo(3);
+        assertThat(dispatcher.stats().getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve reagendar apenas os destinatários recusados pelo servidor")
+    void dispatchRetriesOnlyFailedRecipientsTest() {
+        queue(email(1L, "a@email.com", 0), email(2L, "b@email.com", 0));
+        Mockito.doAnswer(invocation -> {
+            SimpleMailMessage rejected = invocation.getArgument(1);
+            throw new MailSendException(Collections.singletonMap(rejected, new RuntimeException("recusado")));
+        }).when(mailSender).send(Mockito.<SimpleMailMessage[]>any());
+
+        dispatcher.dispatch();
+
+        Mockito.verify(repository).markSent(Collections.singletonList(1L), token, NOW);
+        Mockito.verify(repository).markFailed(2L, token, EmailOutboxStatus.PENDING, NOW.plusSeconds(1), "recusado");
+    }
+
+    @Test
+    @DisplayName("Deve reagendar o email com espera exponencial quando o envio falhar")
+    void dispatchRetriesWithBackoffTest() {
+        queue(email(1L, "a@email.com", 1));
+        Mockito.doThrow(new MailSendException("smtp indisponível")).when(mailSender).send(Mockito.<SimpleMailMessage[]>any());
+
+        dispatcher.dispatch();
+
+        Mockito.verify(repository).markFailed(1L, token, EmailOutboxStatus.PENDING, NOW.plusSeconds(2), "smtp indisponível");
+        Mockito.verify(repository, Mockito.never()).markSent(Mockito.anyCollection(), Mockito.anyString(), Mockito.any());
+        assertThat(dispatcher.stats().getRetried()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve mover o email para a fila de mortos ao esgotar as tentativas")
+    void dispatchDeadLettersAfterMaxAttemptsTest() {
+        queue(email(1L, "a@email.com", 2));
+        Mockito.doThrow(new MailSendException("smtp indisponível")).when(mailSender).send(Mockito.<SimpleMailMessage[]>any());
+
+        dispatcher.dispatch();
+
+        Mockito.verify(repository).markFailed(1L, token, EmailOutboxStatus.DEAD, null, "smtp indisponível");
+        assertThat(dispatcher.stats().getDeadLettered()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve contar como enviados os emails cuja reserva expirou durante o envio")
+    void dispatchWithExpiredClaimTest() {
+        queue(email(1L, "a@email.com", 0), email(2L, "b@email.com", 0));
+        Mockito.when(repository.markSent(Mockito.anyCollection(), Mockito.anyString(), Mockito.any())).thenReturn(1);
+
+        dispatcher.dispatch();
+
+        Mockito.verify(repository).markSent(Arrays.asList(1L, 2L), token, NOW);
+        assertThat(dispatcher.stats().getSent()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve remover os emails enviados antes do período de retenção")
+    void purgeSentTest() {
+        dispatcher.purgeSent();
+
+        Mockito.verify(repository).deleteSentBefore(NOW.minusDays(7));
+    }
+
+    @Test
+    @DisplayName("Não deve reservar emails quando não houver nenhum vencido")
+    void dispatchWithoutDueEmailsTest() {
+        Mockito.when(repository.findDueIds(Mockito.any(), Mockito.any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        dispatcher.dispatch();
+
+        Mockito.verify(repository, Mockito.never()).claim(Mockito.anyCollection(), Mockito.anyString(), Mockito.any());
+        Mockito.verifyNoInteractions(mailSender);
+    }
+}
@@ -0,0 +1,93 @@
+package com.leandro.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.leandro.model.entity.EmailOutboxStatus;
+import com.leandro.model.repository.EmailOutboxRepository;
+import com.leandro.service.support.EmailOutboxDispatcher;
+import com.leandro.service.support.RenderedMail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.internet.MimeMessage;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "application.mail.outbox.poll-ms=3600000"
+})
+@ActiveProfiles("test")
+class EmailOutboxIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    EmailService emailService;
+
+    @Autowired
+    EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    EmailOutboxRepository repository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    private RenderedMail mail(String recipient) {
+        return new RenderedMail(recipient, "Livro com empréstimo atrasado", "Devolva o livro");
+    }
+
+    @Test
+    @DisplayName("Deve gravar um email por destinatário na transação e entregá-los pelo despachante")
+    void enqueueAndDeliverTest() throws Exception {
+        transactionTemplate.executeWithoutResult(status ->
+                emailService.sendMails(Arrays.asList(mail("a@email.com"), mail("b@email.com"))));
+        assertThat(repository.countByStatus(EmailOutboxStatus.PENDING)).isEqualTo(2);
+
+        dispatcher.dispatch();
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 2)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received[0].getSubject()).isEqualTo("Livro com empréstimo atrasado");
+        assertThat(received[0].getAllRecipients()).hasSize(1);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (repository.countByStatus(EmailOutboxStatus.SENT) < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(repository.countByStatus(EmailOutboxStatus.SENT)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Não deve enviar o email quando a transação que o gravou for desfeita")
+    void rollbackDiscardsEmailTest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendMails(Collections.singletonList(mail("a@email.com")));
+            status.setRollbackOnly();
+        });
+
+        dispatcher.dispatch();
+
+        assertThat(repository.count()).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+}
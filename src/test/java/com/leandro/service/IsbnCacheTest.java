@@ -0,0 +1,109 @@
+package com.leandro.service;
+
+import com.leandro.model.entity.Book;
+import com.leandro.service.support.IsbnCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsbnCacheTest {
+
+    private Book book(String isbn) {
+        return Book.builder().id(1L).isbn(isbn).title("Titulo").author("Autor").build();
+    }
+
+    @Test
+    @DisplayName("Deve contabilizar acertos e falhas do cache")
+    void hitAndMissTest() {
+        IsbnCache cache = new IsbnCache(10, 600, Clock.systemUTC());
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("123", isbn -> {
+            loads.incrementAndGet();
+            return Optional.of(book(isbn));
+        });
+        Optional<Book> cached = cache.get("123", isbn -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(cached).isPresent();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats().getHits()).isEqualTo(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve remover a entrada menos usada quando o cache estiver cheio")
+    void sizeEvictionTest() {
+        IsbnCache cache = new IsbnCache(2, 600, Clock.systemUTC());
+
+        cache.put(book("1"));
+        cache.put(book("2"));
+        cache.put(book("3"));
+
+        assertThat(cache.stats().getSize()).isEqualTo(2);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+        assertThat(cache.get("1", isbn -> Optional.empty())).isNotPresent();
+    }
+
+    @Test
+    @DisplayName("Deve expirar as entradas após o ttl")
+    void ttlEvictionTest() {
+        IsbnCache cache = new IsbnCache(10, 0, Clock.fixed(Instant.now(), ZoneOffset.UTC));
+        cache.put(book("123"));
+
+        Optional<Book> result = cache.get("123", isbn -> Optional.empty());
+
+        assertThat(result).isNotPresent();
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve guardar resultados vazios")
+    void emptyResultNotCachedTest() {
+        IsbnCache cache = new IsbnCache(10, 600, Clock.systemUTC());
+
+        cache.get("123", isbn -> Optional.empty());
+
+        assertThat(cache.stats().getSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve devolver uma cópia do livro em cada acerto do cache")
+    void cachedBookIsCopyTest() {
+        IsbnCache cache = new IsbnCache(10, 600, Clock.systemUTC());
+        Book loaded = cache.get("123", isbn -> Optional.of(book(isbn))).get();
+        loaded.setTitle("Alterado");
+
+        Book cached = cache.get("123", isbn -> Optional.empty()).get();
+        cached.setAuthor("Alterado");
+
+        Book again = cache.get("123", isbn -> Optional.empty()).get();
+        assertThat(again).isNotSameAs(cached);
+        assertThat(again.getTitle()).isEqualTo("Titulo");
+        assertThat(again.getAuthor()).isEqualTo("Autor");
+    }
+
+    @Test
+    @DisplayName("Não deve guardar um livro carregado antes de a entrada ser invalidada")
+    void evictDuringLoadTest() {
+        IsbnCache cache = new IsbnCache(10, 600, Clock.systemUTC());
+
+        Optional<Book> loaded = cache.get("123", isbn -> {
+            cache.evict(isbn);
+            return Optional.of(book(isbn));
+        });
+
+        assertThat(loaded).isPresent();
+        assertThat(cache.stats().getSize()).isZero();
+    }
+}
@@ -0,0 +1,96 @@
+package com.leandro.service;
+
+import com.leandro.model.entity.JobLease;
+import com.leandro.model.repository.JobLeaseRepository;
+import com.leandro.service.support.JobLeases;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobLeasesTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 6, 10, 8, 0);
+
+    JobLeaseRepository repository;
+    JobLeases jobLeases;
+    AtomicInteger runs;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(JobLeaseRepository.class);
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        jobLeases = new JobLeases(repository, Mockito.mock(PlatformTransactionManager.class), "no-1",
+                Duration.ofMinutes(30), Duration.ofMinutes(1), clock);
+        runs = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Deve executar o job e manter a trava pelo tempo mínimo quando o lease expirado for adquirido")
+    void runWithExpiredLeaseTest() {
+        Mockito.when(repository.acquire("job", "no-1", NOW, NOW.plusMinutes(30))).thenReturn(1);
+
+        boolean ran = jobLeases.runExclusive("job", runs::incrementAndGet);
+
+        assertThat(ran).isTrue();
+        assertThat(runs.get()).isOne();
+        Mockito.verify(repository).release("job", "no-1", NOW.plusMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deve criar o lease na primeira execução do job")
+    void runWithoutLeaseRowTest() {
+        Mockito.when(repository.existsById("job")).thenReturn(false);
+
+        boolean ran = jobLeases.runExclusive("job", runs::incrementAndGet);
+
+        assertThat(ran).isTrue();
+        Mockito.verify(repository).saveAndFlush(Mockito.any(JobLease.class));
+    }
+
+    @Test
+    @DisplayName("Não deve executar o job quando outro nó detém o lease")
+    void runWithHeldLeaseTest() {
+        Mockito.when(repository.existsById("job")).thenReturn(true);
+
+        boolean ran = jobLeases.runExclusive("job", runs::incrementAndGet);
+
+        assertThat(ran).isFalse();
+        assertThat(runs.get()).isZero();
+        Mockito.verify(repository, Mockito.never()).release(Mockito.anyString(), Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Não deve executar o job quando outro nó criar o lease primeiro")
+    void runWithConcurrentInsertTest() {
+        Mockito.when(repository.saveAndFlush(Mockito.any(JobLease.class))).thenThrow(new DataIntegrityViolationException("duplicado"));
+
+        boolean ran = jobLeases.runExclusive("job", runs::incrementAndGet);
+
+        assertThat(ran).isFalse();
+        assertThat(runs.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve liberar o lease mesmo quando o job falhar")
+    void releaseOnFailureTest() {
+        Mockito.when(repository.acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(1);
+
+        assertThatThrownBy(() -> jobLeases.runExclusive("job", () -> {
+            throw new IllegalStateException("falhou");
+        })).isInstanceOf(IllegalStateException.class);
+
+        Mockito.verify(repository).release("job", "no-1", NOW.plusMinutes(1));
+    }
+}
@@ -0,0 +1,115 @@
+package com.leandro.service;
+
+import com.leandro.model.projection.LoanDueDate;
+import com.leandro.model.repository.JobLeaseRepository;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.event.LoanCreatedEvent;
+import com.leandro.service.event.LoanReturnedEvent;
+import com.leandro.service.support.JobLeases;
+import com.leandro.service.support.LateLoanDetector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LateLoanDetectorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2020, 6, 10);
+
+    LoanRepository repository;
+    ScheduleService scheduleService;
+    JobLeaseRepository leaseRepository;
+    LateLoanDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(LoanRepository.class);
+        scheduleService = Mockito.mock(ScheduleService.class);
+        Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        leaseRepository = Mockito.mock(JobLeaseRepository.class);
+        Mockito.when(leaseRepository.acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(1);
+        JobLeases jobLeases = new JobLeases(leaseRepository, Mockito.mock(PlatformTransactionManager.class), "no-1",
+                Duration.ofMinutes(30), Duration.ZERO, clock);
+        detector = new LateLoanDetector(repository, scheduleService, jobLeases, 2, clock);
+    }
+
+    private LoanDueDate dueDate(Long id, LocalDate date) {
+        LoanDueDate projection = Mockito.mock(LoanDueDate.class);
+        Mockito.when(projection.getId()).thenReturn(id);
+        Mockito.when(projection.getDueDate()).thenReturn(date);
+        return projection;
+    }
+
+    @Test
+    @DisplayName("Deve disparar apenas os empréstimos que passaram do vencimento e não foram devolvidos")
+    void fireOverdueLoansTest() {
+        detector.onLoanCreated(new LoanCreatedEvent(1L, 10L, null, TODAY.minusDays(1)));
+        detector.onLoanCreated(new LoanCreatedEvent(2L, 20L, null, TODAY.minusDays(2)));
+        detector.onLoanCreated(new LoanCreatedEvent(3L, 30L, null, TODAY));
+        detector.onLoanCreated(new LoanCreatedEvent(4L, 40L, null, TODAY.minusDays(1)));
+        detector.onLoanReturned(new LoanReturnedEvent(4L, 40L, null));
+
+        detector.fireDue();
+        detector.fireDue();
+
+        Mockito.verify(scheduleService, Mockito.times(1)).notifyLateLoans(Arrays.asList(2L, 1L));
+        assertThat(detector.pending()).isOne();
+    }
+
+    @Test
+    @DisplayName("Deve carregar os vencimentos pendentes do banco em blocos")
+    void loadTest() {
+        List<LoanDueDate> firstChunk = Arrays.asList(dueDate(1L, TODAY), dueDate(2L, TODAY.plusDays(1)));
+        List<LoanDueDate> lastChunk = Collections.singletonList(dueDate(3L, TODAY.plusDays(2)));
+        Mockito.when(repository.findPendingDueDates(Mockito.eq(TODAY), Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(firstChunk);
+        Mockito.when(repository.findPendingDueDates(Mockito.eq(TODAY), Mockito.eq(2L), Mockito.any(Pageable.class)))
+                .thenReturn(lastChunk);
+
+        detector.load();
+        detector.fireDue();
+
+        assertThat(detector.pending()).isEqualTo(3);
+        Mockito.verify(scheduleService, Mockito.never()).notifyLateLoans(Mockito.<Collection<Long>>any());
+    }
+
+    @Test
+    @DisplayName("Não deve disparar os vencidos quando outro nó detém o job")
+    void fireDueWithoutLeaseTest() {
+        Mockito.when(leaseRepository.acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(0);
+        Mockito.when(leaseRepository.existsById("late-loan-detector")).thenReturn(true);
+        detector.onLoanCreated(new LoanCreatedEvent(1L, 10L, null, TODAY.minusDays(1)));
+
+        detector.fireDue();
+
+        Mockito.verify(scheduleService, Mockito.never()).notifyLateLoans(Mockito.<Collection<Long>>any());
+        assertThat(detector.pending()).isOne();
+    }
+
+    @Test
+    @DisplayName("Deve notificar os vencidos em blocos limitados pelo tamanho configurado")
+    void fireDueInChunksTest() {
+        for (long id = 1; id <= 5; id++) {
+            detector.onLoanCreated(new LoanCreatedEvent(id, id * 10, null, TODAY.minusDays(1)));
+        }
+
+        detector.fireDue();
+
+        Mockito.verify(scheduleService).notifyLateLoans(Arrays.asList(1L, 2L));
+        Mockito.verify(scheduleService).notifyLateLoans(Arrays.asList(3L, 4L));
+        Mockito.verify(scheduleService).notifyLateLoans(Collections.singletonList(5L));
+    }
+}
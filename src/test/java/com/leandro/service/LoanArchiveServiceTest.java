@@ -0,0 +1,86 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.LoanDTO;
+import com.leandro.model.projection.LoanSummary;
+import com.leandro.model.repository.LoanArchiveRepository;
+import com.leandro.model.repository.LoanCustomerGramRepository;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.impl.LoanArchiveServiceImpl;
+import com.leandro.service.support.JobLeases;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoanArchiveServiceTest {
+
+    LoanArchiveService service;
+
+    LoanRepository loanRepository;
+    LoanArchiveRepository archiveRepository;
+    LoanCustomerGramRepository gramRepository;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository = Mockito.mock(LoanRepository.class);
+        archiveRepository = Mockito.mock(LoanArchiveRepository.class);
+        gramRepository = Mockito.mock(LoanCustomerGramRepository.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+        service = new LoanArchiveServiceImpl(loanRepository, archiveRepository, gramRepository, transactionTemplate,
+                Mockito.mock(JobLeases.class), 90, 2, 10, 0);
+    }
+
+    private Page<LoanSummary> page(Long... ids) {
+        List<LoanSummary> content = Arrays.stream(ids)
+                .map(id -> new LoanSummary(id, 1L, "Titulo", "Autor", "123", "Fulano", "fulano@email.com"))
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, PageRequest.of(0, 10), ids.length + 10);
+    }
+
+    @Test
+    @DisplayName("Deve arquivar os empréstimos devolvidos em lotes até não restar nenhum")
+    void archiveInBatchesTest() {
+        Mockito.when(loanRepository.findArchivableIds(Mockito.eq(LocalDate.now().minusDays(90)), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(1L, 2L))
+                .thenReturn(Collections.singletonList(3L));
+        Mockito.when(archiveRepository.copyFromLoans(Mockito.anyCollection())).thenReturn(2, 1);
+        Mockito.when(loanRepository.deleteReturned(Mockito.anyCollection())).thenReturn(2, 1);
+        Mockito.when(archiveRepository.count()).thenReturn(3L);
+
+        int archived = service.archive();
+
+        assertThat(archived).isEqualTo(3);
+        Mockito.verify(gramRepository, Mockito.times(2)).deleteByLoanIds(Mockito.anyCollection());
+        assertThat(service.getStats().getArchivedRows()).isEqualTo(3);
+        assertThat(service.getStats().getLastPassRows()).isEqualTo(3);
+        assertThat(service.getStats().getLastPassBatches()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve intercalar o histórico ativo e arquivado de um livro pelo id do empréstimo")
+    void findHistoryByBookTest() {
+        PageRequest head = PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "id"));
+        Mockito.when(loanRepository.findSummariesByBookId(1L, head)).thenReturn(page(9L, 7L, 4L));
+        Mockito.when(archiveRepository.findSummariesByBookId(1L, head)).thenReturn(page(8L, 3L, 2L, 1L));
+
+        Page<LoanDTO> result = service.findHistoryByBook(1L, PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(result.getContent().stream().map(LoanDTO::getId).collect(Collectors.toList())).containsExactly(7L, 4L);
+        assertThat(result.getTotalElements()).isEqualTo(27);
+    }
+}
@@ -0,0 +1,155 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.LoanReturnResultDTO;
+import com.leandro.api.dto.LoanReturnStatus;
+import com.leandro.model.projection.BookActiveLoan;
+import com.leandro.model.projection.LoanReturnState;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.event.LoanReturnedEvent;
+import com.leandro.service.impl.LoanReturnServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoanReturnServiceTest {
+
+    LoanReturnService service;
+
+    LoanRepository loanRepository;
+    BookRepository bookRepository;
+    ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository = Mockito.mock(LoanRepository.class);
+        bookRepository = Mockito.mock(BookRepository.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+        service = new LoanReturnServiceImpl(loanRepository, bookRepository, transactionTemplate, eventPublisher, 2);
+    }
+
+    private LoanReturnState state(Long id, Long bookId, Boolean returned) {
+        return new LoanReturnState() {
+            public Long getId() {
+                return id;
+            }
+
+            public Long getBookId() {
+                return bookId;
+            }
+
+            public String getCustomerEmail() {
+                return "cliente@email.com";
+            }
+
+            public Boolean getReturned() {
+                return returned;
+            }
+        };
+    }
+
+    private BookActiveLoan book(Long id, String isbn, Long activeLoanId) {
+        return new BookActiveLoan() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getIsbn() {
+                return isbn;
+            }
+
+            public Long getActiveLoanId() {
+                return activeLoanId;
+            }
+
+            public String getCustomerEmail() {
+                return activeLoanId == null ? null : "cliente@email.com";
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Deve devolver empréstimos por id em lotes informando o resultado de cada um")
+    void returnByIdsTest() {
+        Mockito.when(loanRepository.findReturnStates(Arrays.asList(1L, 2L)))
+                .thenReturn(Arrays.asList(state(1L, 10L, false), state(2L, 20L, true)));
+        Mockito.when(loanRepository.findReturnStates(Collections.singletonList(3L)))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(loanRepository.lockOpenLoanIds(Mockito.anyCollection())).thenReturn(Collections.singletonList(1L));
+        Mockito.when(loanRepository.markReturned(Mockito.anyCollection())).thenReturn(1);
+
+        List<LoanReturnResultDTO> results = service.returnLoans(Arrays.asList(1L, 2L, 3L, 1L), null);
+
+        assertThat(results.stream().map(LoanReturnResultDTO::getStatus).collect(Collectors.toList()))
+                .containsExactly(LoanReturnStatus.RETURNED, LoanReturnStatus.ALREADY_RETURNED, LoanReturnStatus.NOT_FOUND);
+
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(loanRepository, Mockito.times(1)).markReturned(captor.capture());
+        assertThat(captor.getValue()).containsExactly(1L);
+        Mockito.verify(bookRepository, Mockito.times(1)).releaseLoans(Mockito.anyCollection());
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(Mockito.any(LoanReturnedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve devolver o empréstimo ativo dos livros informados por isbn")
+    void returnByIsbnsTest() {
+        Mockito.when(bookRepository.findActiveLoansByIsbnIn(Arrays.asList("123", "456")))
+                .thenReturn(Arrays.asList(book(10L, "123", 5L), book(20L, "456", null)));
+        Mockito.when(loanRepository.lockOpenLoanIds(Mockito.anyCollection())).thenReturn(Collections.singletonList(5L));
+        Mockito.when(loanRepository.markReturned(Mockito.anyCollection())).thenReturn(1);
+
+        List<LoanReturnResultDTO> results = service.returnLoans(null, Arrays.asList("123", "456"));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getId()).isEqualTo(5L);
+        assertThat(results.get(0).getStatus()).isEqualTo(LoanReturnStatus.RETURNED);
+        assertThat(results.get(1).getStatus()).isEqualTo(LoanReturnStatus.ALREADY_RETURNED);
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(Mockito.any(LoanReturnedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Deve informar isbn inexistente sem executar atualizações")
+    void returnByUnknownIsbnTest() {
+        Mockito.when(bookRepository.findActiveLoansByIsbnIn(Mockito.anyCollection())).thenReturn(Collections.emptyList());
+
+        List<LoanReturnResultDTO> results = service.returnLoans(null, Collections.singletonList("999"));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getStatus()).isEqualTo(LoanReturnStatus.NOT_FOUND);
+        Mockito.verify(loanRepository, Mockito.never()).markReturned(Mockito.anyCollection());
+        Mockito.verify(bookRepository, Mockito.never()).releaseLoans(Mockito.anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve informar como já devolvido e não publicar eventos para empréstimos devolvidos por outra requisição")
+    void returnConcurrentlyReturnedLoanTest() {
+        Mockito.when(loanRepository.findReturnStates(Arrays.asList(1L, 2L)))
+                .thenReturn(Arrays.asList(state(1L, 10L, false), state(2L, 20L, false)));
+        Mockito.when(loanRepository.lockOpenLoanIds(Mockito.anyCollection())).thenReturn(Collections.singletonList(2L));
+
+        List<LoanReturnResultDTO> results = service.returnLoans(Arrays.asList(1L, 2L), null);
+
+        assertThat(results.stream().map(LoanReturnResultDTO::getStatus).collect(Collectors.toList()))
+                .containsExactly(LoanReturnStatus.ALREADY_RETURNED, LoanReturnStatus.RETURNED);
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(loanRepository).markReturned(captor.capture());
+        assertThat(captor.getValue()).containsExactly(2L);
+        ArgumentCaptor<LoanReturnedEvent> events = ArgumentCaptor.forClass(LoanReturnedEvent.class);
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(events.capture());
+        assertThat(events.getValue().getLoanId()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,127 @@
+package com.leandro.service;
+
+import com.leandro.api.exceptions.BussinesException;
+import com.leandro.model.entity.Book;
+import com.leandro.model.entity.Loan;
+import com.leandro.model.repository.BookRepository;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.impl.LoanServiceImpl;
+import com.leandro.service.support.LoanCustomerIndex;
+import com.leandro.service.support.StripedLock;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int BOOKS = 50;
+
+    @Autowired
+    LoanService service;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanCustomerIndex customerIndex;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    private List<Book> books;
+
+    @BeforeEach
+    void setUp() {
+        List<Book> newBooks = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            newBooks.add(Book.builder().isbn(UUID.randomUUID().toString()).title("Titulo").author("Autor").build());
+        }
+        books = bookRepository.saveAll(newBooks);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanRepository.deleteAllInBatch();
+        bookRepository.deleteAll(books);
+    }
+
+    @Test
+    @DisplayName("Deve manter no máximo um empréstimo aberto por livro sob concorrência")
+    void concurrentLoansTest() throws Exception {
+        LoanService otherNode = new LoanServiceImpl(loanRepository, bookRepository, customerIndex, new StripedLock(64), transactionTemplate, eventPublisher, 4, 1000, 3, 5);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            LoanService loanService = i % 2 == 0 ? service : otherNode;
+            List<Book> order = new ArrayList<>(books);
+            Collections.shuffle(order);
+            results.add(executor.submit(() -> {
+                start.await();
+                int created = 0;
+                for (Book book : order) {
+                    try {
+                        loanService.save(Loan.builder().book(book).customer("Cliente").customerEmail("cliente@email.com").build());
+                        created++;
+                    } catch (BussinesException e) {
+                        assertThat(e).hasMessage("Book already loaned");
+                    }
+                }
+                return created;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        int created = 0;
+        for (Future<Integer> result : results) {
+            created += result.get(60, TimeUnit.SECONDS);
+        }
+        long nanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        log.info("{} tentativas, {} empréstimos criados, {} tentativas/s", THREADS * BOOKS, created,
+                String.format("%.0f", THREADS * BOOKS / (nanos / 1_000_000_000d)));
+
+        Map<Long, Long> openLoansByBook = loanRepository.findAll()
+                .stream()
+                .filter(loan -> !Boolean.TRUE.equals(loan.getReturned()))
+                .collect(Collectors.groupingBy(loan -> loan.getBook().getId(), Collectors.counting()));
+
+        assertThat(openLoansByBook.values()).allMatch(count -> count == 1);
+        assertThat(openLoansByBook).hasSize(created);
+        assertThat(created).isEqualTo(BOOKS);
+    }
+}
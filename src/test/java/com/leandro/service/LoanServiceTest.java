@@ -4,20 +4,33 @@ import com.leandro.api.dto.LoanFilterDTO;
 import com.leandro.api.exceptions.BussinesException;
 import com.leandro.model.entity.Book;
 import com.leandro.model.entity.Loan;
+import com.leandro.model.projection.LateLoanProjection;
+import com.leandro.model.repository.BookRepository;
 import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.event.LoanCreatedEvent;
+import com.leandro.service.event.LoanReturnedEvent;
 import com.leandro.service.impl.LoanServiceImpl;
+import com.leandro.service.support.CustomerGrams;
+import com.leandro.service.support.LoanCustomerIndex;
+import com.leandro.service.support.StripedLock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,9 +46,19 @@ class LoanServiceTest {
     @MockBean
     LoanRepository repository;
 
+    @MockBean
+    BookRepository bookRepository;
+
+    @MockBean
+    ApplicationEventPublisher eventPublisher;
+
+    @MockBean
+    LoanCustomerIndex customerIndex;
+
     @BeforeEach
     private void setUp() {
-        this.service = new LoanServiceImpl(repository);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+        this.service = new LoanServiceImpl(repository, bookRepository, customerIndex, new StripedLock(16), transactionTemplate, eventPublisher, 4, 2, 3, 5);
     }
 
     @Test
@@ -54,8 +77,9 @@ class LoanServiceTest {
                 .book(book)
                 .build();
 
-        Mockito.when(repository.existsByBookAndNotReturned(book)).thenReturn(false);
+        Mockito.when(bookRepository.existsByIdAndActiveLoanIdIsNotNull(1L)).thenReturn(false);
         Mockito.when(repository.save(loanToSave)).thenReturn(savedLoan);
+        Mockito.when(bookRepository.markLoaned(1L, 1L)).thenReturn(1);
 
         Loan returnedLoan = service.save(loanToSave);
 
@@ -64,7 +88,11 @@ class LoanServiceTest {
         assertThat(returnedLoan.getLoanDate()).isEqualTo(LocalDate.now());
         assertThat(returnedLoan.getBook().getId()).isEqualTo(book.getId());
 
+        assertThat(loanToSave.getDueDate()).isEqualTo(LocalDate.now().plusDays(4));
+
         Mockito.verify(repository, Mockito.times(1)).save(loanToSave);
+        Mockito.verify(bookRepository, Mockito.times(1)).markLoaned(1L, 1L);
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(Mockito.any(LoanCreatedEvent.class));
     }
 
     @Test
@@ -76,7 +104,7 @@ class LoanServiceTest {
                 .customer("Leandro")
                 .build();
 
-        Mockito.when(repository.existsByBookAndNotReturned(book)).thenReturn(true);
+        Mockito.when(bookRepository.existsByIdAndActiveLoanIdIsNotNull(1L)).thenReturn(true);
 
         Throwable exception = catchThrowable(() -> service.save(loanToSave));
 
@@ -85,6 +113,24 @@ class LoanServiceTest {
                 .hasMessage("Book already loaned");
 
         Mockito.verify(repository, Mockito.never()).save(loanToSave);
+        Mockito.verify(bookRepository, Mockito.never()).markLoaned(Mockito.anyLong(), Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio quando outro empréstimo marcar o livro primeiro")
+    void concurrentlyLoanedBookSaveTest() {
+        Book book = Book.builder().id(1L).build();
+        Loan loanToSave = Loan.builder().book(book).customer("Leandro").build();
+
+        Mockito.when(bookRepository.existsByIdAndActiveLoanIdIsNotNull(1L)).thenReturn(false);
+        Mockito.when(repository.save(loanToSave)).thenReturn(Loan.builder().id(2L).book(book).build());
+        Mockito.when(bookRepository.markLoaned(1L, 2L)).thenReturn(0);
+
+        Throwable exception = catchThrowable(() -> service.save(loanToSave));
+
+        assertThat(exception)
+                .isInstanceOf(BussinesException.class)
+                .hasMessage("Book already loaned");
     }
 
     @Test
@@ -138,6 +184,20 @@ class LoanServiceTest {
         Mockito.verify(repository, Mockito.times(1)).save(Mockito.any(Loan.class));
     }
 
+    @Test
+    @DisplayName("Deve liberar o livro ao devolver o empréstimo")
+    void returnLoanReleasesBookTest() {
+        Loan loan = Loan.builder().id(1L).book(Book.builder().id(10L).build()).returned(true).build();
+
+        Mockito.when(repository.save(loan)).thenReturn(loan);
+        Mockito.when(bookRepository.releaseLoan(10L, 1L)).thenReturn(1);
+
+        service.update(loan);
+
+        Mockito.verify(bookRepository, Mockito.times(1)).releaseLoan(10L, 1L);
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(Mockito.any(LoanReturnedEvent.class));
+    }
+
     @Test
     @DisplayName("Deve encontrar um empréstimo")
     void findTest() {
@@ -172,16 +232,44 @@ class LoanServiceTest {
     }
 
     @Test
-    @DisplayName("Deve obter todos os empréstimos atrasados")
-    void findAllLateLoansTest() {
-        Loan loan = Loan.builder().id(1L).loanDate(LocalDate.now().minusDays(10)).build();
+    @DisplayName("Deve percorrer os lembretes pendentes em blocos e registrar o envio de cada bloco")
+    void scanLateLoansTest() {
+        LocalDate reminderDate = LocalDate.now().minusDays(10);
+        LateLoanProjection first = lateLoan(1L, reminderDate);
+        LateLoanProjection second = lateLoan(2L, reminderDate);
+        LateLoanProjection third = lateLoan(3L, reminderDate.plusDays(1));
+
+        Mockito.when(repository.findDueReminders(Mockito.any(LocalDate.class), Mockito.eq(LocalDate.of(1970, 1, 1)), Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(first, second));
+        Mockito.when(repository.findDueReminders(Mockito.any(LocalDate.class), Mockito.eq(reminderDate), Mockito.eq(2L), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.singletonList(third));
+
+        List<List<LateLoanProjection>> chunks = new ArrayList<>();
+        service.scanLateLoans(chunks::add);
+
+        assertThat(chunks).containsExactly(Arrays.asList(first, second), Collections.singletonList(third));
+        LocalDate nextReminder = LocalDate.now().plusDays(3);
+        Mockito.verify(repository).markNotified(Mockito.eq(Arrays.asList(1L, 2L)), Mockito.any(LocalDateTime.class), Mockito.eq(nextReminder));
+        Mockito.verify(repository).markNotified(Mockito.eq(Collections.singletonList(3L)), Mockito.any(LocalDateTime.class), Mockito.eq(nextReminder));
+        Mockito.verify(repository, Mockito.times(2)).stopReminders(Mockito.anyCollection(), Mockito.eq(5));
+    }
 
-        Mockito.when(repository.findAllByLoanDateBeforeAndReturnedIsFalse(Mockito.any(LocalDate.class))).thenReturn(Arrays.asList(loan));
+    private LateLoanProjection lateLoan(Long id, LocalDate nextNotificationDate) {
+        LateLoanProjection projection = Mockito.mock(LateLoanProjection.class);
+        Mockito.when(projection.getId()).thenReturn(id);
+        Mockito.when(projection.getNextNotificationDate()).thenReturn(nextNotificationDate);
+        return projection;
+    }
+
+    @Test
+    @DisplayName("Deve buscar os empréstimos seguintes ao cursor")
+    void findAfterTest() {
+        Loan loan = Loan.builder().id(11L).build();
 
-        List<Loan> lateLoans = service.getAllLateLoans();
+        Mockito.when(repository.findAllAfter(Mockito.any(Example.class), Mockito.eq(CustomerGrams.of("Customer")), Mockito.eq(10L), Mockito.eq(21))).thenReturn(Arrays.asList(loan));
 
-        assertThat(lateLoans).hasSize(1).contains(loan);
+        List<Loan> result = service.findAfter(LoanFilterDTO.builder().customer("Customer").build(), 10L, 21);
 
-        Mockito.verify(repository, Mockito.times(1)).findAllByLoanDateBeforeAndReturnedIsFalse(Mockito.any(LocalDate.class));
+        assertThat(result).containsExactly(loan);
     }
 }
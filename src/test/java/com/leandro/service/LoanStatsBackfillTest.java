@@ -0,0 +1,76 @@
+package com.leandro.service;
+
+import com.leandro.model.projection.LoanCounts;
+import com.leandro.model.repository.BookLoanStatsRepository;
+import com.leandro.model.repository.CustomerLoanStatsRepository;
+import com.leandro.model.repository.JobLeaseRepository;
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.model.repository.LoanTotalsRepository;
+import com.leandro.service.support.JobLeases;
+import com.leandro.service.support.LoanStatsBackfill;
+import com.leandro.service.support.MostBorrowedBooks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+
+class LoanStatsBackfillTest {
+
+    LoanRepository loanRepository;
+    BookLoanStatsRepository bookStatsRepository;
+    CustomerLoanStatsRepository customerStatsRepository;
+    LoanTotalsRepository totalsRepository;
+    MostBorrowedBooks mostBorrowedBooks;
+    JobLeaseRepository leaseRepository;
+    LoanStatsBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository = Mockito.mock(LoanRepository.class);
+        bookStatsRepository = Mockito.mock(BookLoanStatsRepository.class);
+        customerStatsRepository = Mockito.mock(CustomerLoanStatsRepository.class);
+        totalsRepository = Mockito.mock(LoanTotalsRepository.class);
+        mostBorrowedBooks = Mockito.mock(MostBorrowedBooks.class);
+        leaseRepository = Mockito.mock(JobLeaseRepository.class);
+        JobLeases jobLeases = new JobLeases(leaseRepository, Mockito.mock(PlatformTransactionManager.class), "no-1",
+                Duration.ofMinutes(30), Duration.ZERO, Clock.systemUTC());
+        backfill = new LoanStatsBackfill(loanRepository, bookStatsRepository, customerStatsRepository, totalsRepository,
+                mostBorrowedBooks, new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), jobLeases, 2);
+    }
+
+    @Test
+    @DisplayName("Deve calcular as estatísticas quando obtiver o lease e ainda não houver totais")
+    void backfillWithLeaseTest() {
+        Mockito.when(leaseRepository.acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(1);
+        Mockito.when(totalsRepository.count()).thenReturn(0L);
+        LoanCounts counts = Mockito.mock(LoanCounts.class);
+        Mockito.when(counts.getLoans()).thenReturn(3L);
+        Mockito.when(counts.getOpenLoans()).thenReturn(1L);
+        Mockito.when(loanRepository.countLoans()).thenReturn(counts);
+
+        backfill.backfill();
+
+        Mockito.verify(bookStatsRepository).backfill();
+        Mockito.verify(customerStatsRepository).backfill();
+        Mockito.verify(totalsRepository).saveAll(Mockito.anyList());
+        Mockito.verify(mostBorrowedBooks).load();
+    }
+
+    @Test
+    @DisplayName("Não deve calcular as estatísticas quando outro nó detiver o lease")
+    void backfillWithoutLeaseTest() {
+        Mockito.when(leaseRepository.acquire(Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(0);
+        Mockito.when(leaseRepository.existsById("loan-stats-backfill")).thenReturn(true);
+
+        backfill.backfill();
+
+        Mockito.verify(totalsRepository, Mockito.never()).count();
+        Mockito.verify(bookStatsRepository, Mockito.never()).backfill();
+        Mockito.verify(mostBorrowedBooks).load();
+    }
+}
@@ -0,0 +1,111 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.BookLoanStatsDTO;
+import com.leandro.api.dto.CustomerLoanStatsDTO;
+import com.leandro.model.entity.BookLoanStats;
+import com.leandro.model.repository.BookLoanStatsRepository;
+import com.leandro.model.repository.CustomerLoanStatsRepository;
+import com.leandro.model.repository.LoanTotalsRepository;
+import com.leandro.service.event.LoanCreatedEvent;
+import com.leandro.service.event.LoanReturnedEvent;
+import com.leandro.service.impl.LoanStatsServiceImpl;
+import com.leandro.service.support.MostBorrowedBooks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoanStatsServiceTest {
+
+    LoanStatsServiceImpl service;
+
+    BookLoanStatsRepository bookStatsRepository;
+    CustomerLoanStatsRepository customerStatsRepository;
+    LoanTotalsRepository totalsRepository;
+    JdbcTemplate jdbcTemplate;
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        bookStatsRepository = Mockito.mock(BookLoanStatsRepository.class);
+        customerStatsRepository = Mockito.mock(CustomerLoanStatsRepository.class);
+        totalsRepository = Mockito.mock(LoanTotalsRepository.class);
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        service = new LoanStatsServiceImpl(bookStatsRepository, customerStatsRepository, totalsRepository,
+                Mockito.mock(MostBorrowedBooks.class), jdbcTemplate, transactionManager, 16);
+    }
+
+    @Test
+    @DisplayName("Deve apenas incrementar os contadores já existentes ao criar um empréstimo")
+    void loanCreatedIncrementsExistingCountersTest() {
+        Mockito.when(bookStatsRepository.incrementLoans(10L)).thenReturn(1);
+        Mockito.when(customerStatsRepository.incrementLoans("cliente@email.com")).thenReturn(1);
+        Mockito.when(totalsRepository.incrementLoans(1)).thenReturn(1);
+
+        service.onLoanCreated(new LoanCreatedEvent(17L, 10L, "cliente@email.com", LocalDate.now()));
+
+        Mockito.verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve inserir os contadores que ainda não existem ao criar um empréstimo")
+    void loanCreatedInsertsMissingCountersTest() {
+        service.onLoanCreated(new LoanCreatedEvent(17L, 10L, "cliente@email.com", LocalDate.now()));
+
+        Mockito.verify(jdbcTemplate).update(Mockito.startsWith("insert into book_loan_stats"), Mockito.eq(10L));
+        Mockito.verify(jdbcTemplate).update(Mockito.startsWith("insert into customer_loan_stats"), Mockito.eq("cliente@email.com"));
+        Mockito.verify(jdbcTemplate).update(Mockito.startsWith("insert into loan_totals"), Mockito.eq(1));
+        Mockito.verify(transactionManager, Mockito.times(3)).getTransaction(Mockito.argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        Mockito.verify(bookStatsRepository, Mockito.times(2)).incrementLoans(10L);
+        Mockito.verify(customerStatsRepository, Mockito.times(2)).incrementLoans("cliente@email.com");
+        Mockito.verify(totalsRepository, Mockito.times(2)).incrementLoans(1);
+    }
+
+    @Test
+    @DisplayName("Deve incrementar o contador criado por outra transação quando a inserção conflitar")
+    void loanCreatedRetriesIncrementOnDuplicateKeyTest() {
+        Mockito.when(customerStatsRepository.incrementLoans("cliente@email.com")).thenReturn(0, 1);
+        Mockito.when(jdbcTemplate.update(Mockito.startsWith("insert into customer_loan_stats"), Mockito.eq("cliente@email.com")))
+                .thenThrow(new DuplicateKeyException("duplicado"));
+
+        service.onLoanCreated(new LoanCreatedEvent(17L, 10L, "cliente@email.com", LocalDate.now()));
+
+        Mockito.verify(customerStatsRepository, Mockito.times(2)).incrementLoans("cliente@email.com");
+    }
+
+    @Test
+    @DisplayName("Deve decrementar os empréstimos em aberto ao devolver um empréstimo")
+    void loanReturnedDecrementsOpenLoansTest() {
+        Mockito.when(totalsRepository.decrementOpenLoans(1)).thenReturn(1);
+
+        service.onLoanReturned(new LoanReturnedEvent(17L, 10L, "cliente@email.com"));
+
+        Mockito.verify(bookStatsRepository).decrementOpenLoans(10L);
+        Mockito.verify(customerStatsRepository).decrementOpenLoans("cliente@email.com");
+        Mockito.verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve retornar os contadores de um livro ou zeros quando ele nunca foi emprestado")
+    void getBookStatsTest() {
+        Mockito.when(bookStatsRepository.findById(10L)).thenReturn(Optional.of(new BookLoanStats(10L, 5, 1)));
+
+        BookLoanStatsDTO stats = service.getBookStats(10L);
+        CustomerLoanStatsDTO empty = service.getCustomerStats("novo@email.com");
+
+        assertThat(stats.getLoans()).isEqualTo(5);
+        assertThat(stats.getOpenLoans()).isEqualTo(1);
+        assertThat(empty.getLoans()).isZero();
+    }
+}
@@ -0,0 +1,48 @@
+package com.leandro.service;
+
+import com.leandro.model.repository.LoanRepository;
+import com.leandro.service.event.LoanCreatedEvent;
+import com.leandro.service.event.LoanReturnedEvent;
+import com.leandro.service.support.LoanedBooksIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoanedBooksIndexTest {
+
+    @Test
+    @DisplayName("Deve carregar os livros emprestados do banco e acompanhar empréstimos e devoluções")
+    void loadAndTrackTest() {
+        LoanRepository repository = Mockito.mock(LoanRepository.class);
+        Mockito.when(repository.findLoanedBookIds()).thenReturn(Arrays.asList(1L, 5_000_000_000L));
+        LoanedBooksIndex index = new LoanedBooksIndex(repository);
+
+        index.load();
+        index.onLoanCreated(new LoanCreatedEvent(10L, 2L, null, null));
+        index.onLoanReturned(new LoanReturnedEvent(11L, 1L, null));
+
+        assertThat(index.isLoaned(1L)).isFalse();
+        assertThat(index.isLoaned(2L)).isTrue();
+        assertThat(index.isLoaned(5_000_000_000L)).isTrue();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve corrigir o índice ao reconciliar com o banco")
+    void reconcileTest() {
+        LoanRepository repository = Mockito.mock(LoanRepository.class);
+        Mockito.when(repository.findLoanedBookIds()).thenReturn(Collections.singletonList(3L));
+        LoanedBooksIndex index = new LoanedBooksIndex(repository);
+        index.onLoanCreated(new LoanCreatedEvent(10L, 2L, null, null));
+
+        index.reconcile();
+
+        assertThat(index.isLoaned(2L)).isFalse();
+        assertThat(index.isLoaned(3L)).isTrue();
+    }
+}
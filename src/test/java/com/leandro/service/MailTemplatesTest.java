@@ -0,0 +1,96 @@
+package com.leandro.service;
+
+import com.leandro.service.support.MailTemplate;
+import com.leandro.service.support.MailTemplates;
+import com.leandro.service.support.RenderedMail;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailTemplatesTest {
+
+    private static final List<String> VARIABLES = Arrays.asList("customer", "bookTitle", "dueDate", "daysLate");
+
+    @TempDir
+    Path directory;
+
+    private MailTemplates templatesAt(Path file, int parallelThreshold) {
+        return new MailTemplates(new DefaultResourceLoader(), file.toUri().toString(), parallelThreshold);
+    }
+
+    private Path write(String subject, String body) throws IOException {
+        Path file = directory.resolve("mail-templates.properties");
+        Files.write(file, Arrays.asList("late-loan.subject=" + subject, "late-loan.body=" + body), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    @DisplayName("Deve compilar o template e substituir as variáveis na renderização")
+    void compileAndRenderTest() {
+        MailTemplate template = MailTemplate.compile("Olá {{customer}}, devolva {{ bookTitle }} ({{daysLate}} dias).", VARIABLES);
+
+        String rendered = template.render(new String[]{"Fulano", "Dom Casmurro", "01/06/2020", "3"});
+
+        assertThat(rendered).isEqualTo("Olá Fulano, devolva Dom Casmurro (3 dias).");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar templates com variáveis desconhecidas ou placeholders sem fechamento")
+    void compileInvalidTemplateTest() {
+        assertThatThrownBy(() -> MailTemplate.compile("Olá {{cliente}}", VARIABLES))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MailTemplate.compile("Olá {{customer", VARIABLES))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Deve renderizar um email por destinatário, inclusive em paralelo")
+    void renderTest() throws IOException {
+        MailTemplates templates = templatesAt(write("Atraso: {{bookTitle}}", "Olá {{customer}}, venceu em {{dueDate}}."), 10);
+        templates.reload();
+        List<Integer> customers = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+        List<RenderedMail> mails = templates.render(MailTemplates.LATE_LOAN, customers, i -> "cliente" + i + "@email.com",
+                i -> new String[]{"Cliente " + i, "Livro " + i, "01/06/2020", "1"});
+
+        assertThat(mails).hasSize(100);
+        assertThat(mails.get(42).getRecipient()).isEqualTo("cliente42@email.com");
+        assertThat(mails.get(42).getSubject()).isEqualTo("Atraso: Livro 42");
+        assertThat(mails.get(42).getBody()).isEqualTo("Olá Cliente 42, venceu em 01/06/2020.");
+    }
+
+    @Test
+    @DisplayName("Deve aplicar os templates alterados ao recarregar e manter os anteriores quando forem inválidos")
+    void reloadTest() throws IOException {
+        Path file = write("Atraso", "Olá {{customer}}");
+        MailTemplates templates = templatesAt(file, 1000);
+        templates.reload();
+
+        write("Atraso", "Oi {{customer}}");
+        assertThat(templates.reload()).containsExactly(MailTemplates.LATE_LOAN);
+        assertThat(render(templates).getBody()).isEqualTo("Oi Fulano");
+
+        write("Atraso", "Oi {{cliente}}");
+        assertThatThrownBy(templates::reload).isInstanceOf(IllegalStateException.class);
+        assertThat(render(templates).getBody()).isEqualTo("Oi Fulano");
+    }
+
+    private RenderedMail render(MailTemplates templates) {
+        return templates.render(MailTemplates.LATE_LOAN, Collections.singletonList("Fulano"), customer -> "fulano@email.com",
+                customer -> new String[]{customer, null, null, null}).get(0);
+    }
+}
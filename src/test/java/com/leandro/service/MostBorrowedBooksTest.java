@@ -0,0 +1,46 @@
+package com.leandro.service;
+
+import com.leandro.api.dto.BookLoanStatsDTO;
+import com.leandro.model.entity.BookLoanStats;
+import com.leandro.model.repository.BookLoanStatsRepository;
+import com.leandro.service.event.LoanCreatedEvent;
+import com.leandro.service.event.LoanReturnedEvent;
+import com.leandro.service.support.MostBorrowedBooks;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MostBorrowedBooksTest {
+
+    @Test
+    @DisplayName("Deve manter apenas os livros mais emprestados ordenados pelo total de empréstimos")
+    void boundedRankingTest() {
+        BookLoanStatsRepository repository = Mockito.mock(BookLoanStatsRepository.class);
+        Mockito.when(repository.findTop(Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(new BookLoanStats(1L, 9, 0), new BookLoanStats(2L, 4, 1)));
+        MostBorrowedBooks mostBorrowedBooks = new MostBorrowedBooks(repository, 2);
+        mostBorrowedBooks.load();
+
+        Mockito.when(repository.findById(3L)).thenReturn(Optional.of(new BookLoanStats(3L, 4, 1)));
+        mostBorrowedBooks.onLoanCreated(new LoanCreatedEvent(10L, 3L, null, null));
+        assertThat(mostBorrowedBooks.top().stream().map(BookLoanStatsDTO::getBookId).collect(Collectors.toList()))
+                .containsExactly(1L, 2L);
+
+        Mockito.when(repository.findById(3L)).thenReturn(Optional.of(new BookLoanStats(3L, 10, 1)));
+        mostBorrowedBooks.onLoanCreated(new LoanCreatedEvent(11L, 3L, null, null));
+        assertThat(mostBorrowedBooks.top().stream().map(BookLoanStatsDTO::getBookId).collect(Collectors.toList()))
+                .containsExactly(3L, 1L);
+
+        Mockito.when(repository.findById(3L)).thenReturn(Optional.of(new BookLoanStats(3L, 10, 0)));
+        mostBorrowedBooks.onLoanReturned(new LoanReturnedEvent(11L, 3L, null));
+        assertThat(mostBorrowedBooks.top().get(0).getOpenLoans()).isZero();
+        Mockito.verify(repository, Mockito.never()).findById(2L);
+    }
+}